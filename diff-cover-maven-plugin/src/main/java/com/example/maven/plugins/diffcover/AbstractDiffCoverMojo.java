@@ -0,0 +1,336 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Common parameters and helpers shared by the diff-cover goals.
+ */
+public abstract class AbstractDiffCoverMojo extends AbstractMojo {
+
+    private static final String[] WELL_KNOWN_REPORTS = {
+            "target/site/cobertura/coverage.xml",
+            "coverage/lcov.info",
+            "coverage/cobertura-coverage.xml"
+    };
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    protected MavenProject project;
+
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true, required = true)
+    protected List<MavenProject> reactorProjects;
+
+    /**
+     * Skip diff-cover execution.
+     * Can be overridden with -Ddiff-cover.skip=true
+     */
+    @Parameter(property = "diff-cover.skip", defaultValue = "false")
+    protected boolean skip;
+
+    /**
+     * Base branch to compare against (e.g., origin/main, origin/develop, main).
+     * The diff-coverage goal accepts several branches comma-separated; each entry may carry
+     * its own threshold as branch:percent (e.g. origin/main,release/1.5:70). With more than
+     * one branch the coverage is parsed once and every branch's diff is evaluated in-process.
+     * The other goals take a single branch.
+     * Can be overridden with -Ddiff-cover.branch=branch_name
+     */
+    @Parameter(property = "diff-cover.branch", defaultValue = "origin/main")
+    protected String branch;
+
+    /**
+     * Minimum coverage percentage required for diff-cover to pass.
+     * Can be overridden with -Ddiff-cover.failUnder=75
+     */
+    @Parameter(property = "diff-cover.failUnder", defaultValue = "80")
+    protected int failUnder;
+
+    /**
+     * Custom output directory for reports and shard files (defaults to target/).
+     * Can be overridden with -Ddiff-cover.outputDirectory=reports/
+     */
+    @Parameter(property = "diff-cover.outputDirectory", defaultValue = "${project.build.directory}")
+    protected String outputDirectory;
+
+    /**
+     * Include only files matching these patterns (comma-separated glob patterns).
+     * Can be overridden with -Ddiff-cover.includePatterns="*.java,*.kt"
+     */
+    @Parameter(property = "diff-cover.includePatterns")
+    protected String includePatterns;
+
+    /**
+     * Exclude files matching these patterns (comma-separated glob patterns).
+     * Can be overridden with -Ddiff-cover.excludePatterns="**\/target\/**,**\/*.generated.java"
+     */
+    @Parameter(property = "diff-cover.excludePatterns")
+    protected String excludePatterns;
+
+    /**
+     * Directory of the coverage snapshot store (local path or mounted shared file system).
+     * Can be overridden with -Ddiff-cover.snapshotDirectory=/mnt/ci-cache/diff-cover
+     */
+    @Parameter(property = "diff-cover.snapshotDirectory", defaultValue = "${user.home}/.diff-cover/snapshots")
+    protected File snapshotDirectory;
+
+    /**
+     * Additional coverage reports (Jacoco XML, Cobertura XML or LCOV), comma-separated and relative
+     * to the project base directory. The format of each report is detected from its content.
+     * Can be overridden with -Ddiff-cover.coverageReports=web/coverage/lcov.info,target/coverage.xml
+     */
+    @Parameter(property = "diff-cover.coverageReports")
+    protected String coverageReports;
+
+    /**
+     * Wall-clock limit in minutes for each git and pip process launched by the plugin (0 = unlimited).
+     * The diff-cover launch itself is limited by timeoutMinutes.
+     * Can be overridden with -Ddiff-cover.processTimeoutMinutes=10
+     */
+    @Parameter(property = "diff-cover.processTimeoutMinutes", defaultValue = "10")
+    protected int processTimeoutMinutes;
+
+    /**
+     * Limit in MB for the summed resident memory of each launched process tree (0 = unlimited).
+     * Can be overridden with -Ddiff-cover.processMemoryLimitMb=1024
+     */
+    @Parameter(property = "diff-cover.processMemoryLimitMb", defaultValue = "0")
+    protected int processMemoryLimitMb;
+
+    /**
+     * Limit in seconds for the summed CPU time of each launched process tree (0 = unlimited).
+     * Can be overridden with -Ddiff-cover.processCpuLimitSeconds=600
+     */
+    @Parameter(property = "diff-cover.processCpuLimitSeconds", defaultValue = "0")
+    protected int processCpuLimitSeconds;
+
+    private SourceRootIndex sourceRootIndex;
+
+    /**
+     * Rejects the branch list and threshold syntax in goals that compare against a single branch.
+     */
+    protected void requireSingleBranch() throws MojoExecutionException {
+        if (branch.contains(",") || branch.contains(":")) {
+            throw new MojoExecutionException("This goal compares against a single branch; lists and per-branch "
+                    + "thresholds (branch:percent) are only supported by diff-coverage: " + branch);
+        }
+    }
+
+    /**
+     * Identifies this module's file among those of other modules, e.g. {@code com.example.service-a}.
+     */
+    protected String moduleKey() {
+        return (project.getGroupId() + "." + project.getArtifactId()).replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    protected GitClient createGitClient() {
+        return new GitClient(getLog(), project.getBasedir(), createProcessSupervisor());
+    }
+
+    protected ProcessSupervisor createProcessSupervisor() {
+        return new ProcessSupervisor(getLog(), new ProcessLimits(TimeUnit.MINUTES.toMillis(processTimeoutMinutes),
+                processMemoryLimitMb * 1024L * 1024L, TimeUnit.SECONDS.toMillis(processCpuLimitSeconds)));
+    }
+
+    protected CoverageSnapshotStore createSnapshotStore() {
+        return new CoverageSnapshotStore(snapshotDirectory);
+    }
+
+    /**
+     * Source roots of all reactor projects, including generated sources, for mapping
+     * report entries to repository paths. Built once per execution.
+     */
+    protected SourceRootIndex getSourceRootIndex() throws MojoExecutionException {
+        if (sourceRootIndex == null) {
+            SourceRootIndex index = new SourceRootIndex(createGitClient().getTopLevel());
+            for (MavenProject reactorProject : reactorProjects) {
+                for (String root : reactorProject.getCompileSourceRoots()) {
+                    index.addSourceRoot(new File(root), reactorProject.getBasedir());
+                }
+                // Henüz compile root olarak eklenmemiş generated-sources dizinleri
+                File[] generated = new File(reactorProject.getBuild().getDirectory(), "generated-sources")
+                        .listFiles(File::isDirectory);
+                if (generated != null) {
+                    for (File root : generated) {
+                        index.addSourceRoot(root, reactorProject.getBasedir());
+                    }
+                }
+            }
+            getLog().debug("Indexed " + index.getSourceRoots().size() + " source roots");
+            sourceRootIndex = index;
+        }
+        return sourceRootIndex;
+    }
+
+    /**
+     * Parses the given coverage reports into a single in-memory coverage index,
+     * picking the reader for each report from its content.
+     */
+    protected CoverageIndex readCoverage(List<File> reports) throws MojoExecutionException {
+        CoverageIndex index = new CoverageIndex();
+        CoverageReaders readers = new CoverageReaders(getClass().getClassLoader());
+        for (File report : reports) {
+            try {
+                CoverageReader reader = readers.select(report);
+                getLog().debug("Reading " + reader.getName() + " report: " + report.getAbsolutePath());
+                reader.read(report, index, new CoveragePathResolver(getSourceRootIndex(), findOwningModule(report)));
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to parse coverage report: " + report.getAbsolutePath(), e);
+            }
+        }
+        getLog().debug("Coverage index contains " + index.size() + " source files");
+        return index;
+    }
+
+    private File findOwningModule(File report) {
+        String reportPath = report.getAbsolutePath();
+        File owner = null;
+        for (MavenProject reactorProject : reactorProjects) {
+            String buildDir = new File(reactorProject.getBuild().getDirectory()).getAbsolutePath() + File.separator;
+            if (reportPath.startsWith(buildDir)
+                    && (owner == null || reactorProject.getBasedir().getAbsolutePath().length() > owner.getAbsolutePath().length())) {
+                owner = reactorProject.getBasedir();
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Logs a result in the layout of diff-cover's console report.
+     */
+    protected void logResult(DiffCoverageResult result) {
+        getLog().info("-------------");
+        getLog().info("Diff Coverage");
+        getLog().info("Diff: " + result.getDiffName());
+        getLog().info("-------------");
+        if (result.getFiles().isEmpty()) {
+            getLog().info("No lines with coverage information in this diff.");
+        }
+        for (DiffCoverageResult.FileResult file : result.getFiles()) {
+            if (file.getViolationCount() == 0) {
+                getLog().info(String.format("%s (%.1f%%)", file.getPath(), file.getPercentCovered()));
+            } else {
+                getLog().info(String.format("%s (%.1f%%): Missing lines %s", file.getPath(),
+                        file.getPercentCovered(), file.getViolationLines()));
+            }
+        }
+        getLog().info("-------------");
+        getLog().info("Total:   " + result.getTotalLines() + " lines");
+        getLog().info("Missing: " + result.getTotalViolations() + " lines");
+        getLog().info("Coverage: " + result.getTotalPercentCovered() + "%");
+        getLog().info("-------------");
+    }
+
+    protected void warnNoCoverageReports() {
+        getLog().warn("No coverage reports found. Make sure tests are run and Jacoco plugin is configured,");
+        getLog().warn("or list Cobertura/LCOV reports with -Ddiff-cover.coverageReports.");
+        getLog().warn("Expected locations:");
+        getLog().warn("  - " + project.getBuild().getDirectory() + "/site/jacoco/jacoco.xml");
+        if (project.getModules() != null) {
+            for (String module : project.getModules()) {
+                getLog().warn("  - " + module + "/target/site/jacoco/jacoco.xml");
+            }
+        }
+    }
+
+    /**
+     * Jacoco reports of the build, well-known Cobertura/LCOV locations of this project and
+     * its collected sub-modules, and the reports listed in {@link #coverageReports}.
+     */
+    protected List<File> findCoverageReports() throws MojoExecutionException {
+        List<File> reports = findJacocoReports();
+
+        // Frontend/Kotlin modüllerinin bilinen rapor konumları (yalnızca bu proje ve alt modülleri)
+        List<MavenProject> scope = new ArrayList<>();
+        scope.add(project);
+        if (project.getCollectedProjects() != null) {
+            scope.addAll(project.getCollectedProjects());
+        }
+        for (MavenProject scopeProject : scope) {
+            for (String location : WELL_KNOWN_REPORTS) {
+                File report = new File(scopeProject.getBasedir(), location);
+                if (report.isFile() && !reports.contains(report)) {
+                    reports.add(report);
+                    getLog().info("Found coverage report: " + report.getAbsolutePath());
+                }
+            }
+        }
+
+        if (coverageReports != null && !coverageReports.trim().isEmpty()) {
+            for (String location : coverageReports.split(",")) {
+                if (location.trim().isEmpty()) {
+                    continue;
+                }
+                File report = new File(location.trim());
+                if (!report.isAbsolute()) {
+                    report = new File(project.getBasedir(), location.trim());
+                }
+                if (!report.isFile()) {
+                    throw new MojoExecutionException("Coverage report not found: " + report.getAbsolutePath());
+                }
+                if (!reports.contains(report)) {
+                    reports.add(report);
+                    getLog().info("Using coverage report: " + report.getAbsolutePath());
+                }
+            }
+        }
+        return reports;
+    }
+
+    private List<File> findJacocoReports() {
+        List<File> reports = new ArrayList<>();
+
+        // Ana proje için jacoco raporunu bul
+        File mainReport = new File(project.getBuild().getDirectory(), "site/jacoco/jacoco.xml");
+        if (mainReport.exists()) {
+            reports.add(mainReport);
+            getLog().info("Found Jacoco report: " + mainReport.getAbsolutePath());
+        }
+
+        // Alt modüller için jacoco raporlarını bul (pom.xml'deki modules)
+        if (project.getModules() != null && !project.getModules().isEmpty()) {
+            for (String module : project.getModules()) {
+                File moduleReport = new File(project.getBasedir(), module + "/target/site/jacoco/jacoco.xml");
+                if (moduleReport.exists()) {
+                    reports.add(moduleReport);
+                    getLog().info("Found module Jacoco report: " + moduleReport.getAbsolutePath());
+                }
+            }
+        }
+
+        // Reaktör projelerinde de ara (Maven session'daki tüm projeler)
+        if (project.getCollectedProjects() != null) {
+            for (MavenProject collectedProject : project.getCollectedProjects()) {
+                File collectedReport = new File(collectedProject.getBuild().getDirectory(), "site/jacoco/jacoco.xml");
+                if (collectedReport.exists() && !reports.contains(collectedReport)) {
+                    reports.add(collectedReport);
+                    getLog().info("Found collected project Jacoco report: " + collectedReport.getAbsolutePath());
+                }
+            }
+        }
+
+        // Parent project'in execution root'unu kontrol et
+        if (project.isExecutionRoot() && project.hasParent()) {
+            // Multi-module parent project durumunda alt dizinleri tara
+            File[] subdirs = project.getBasedir().listFiles(File::isDirectory);
+            if (subdirs != null) {
+                for (File subdir : subdirs) {
+                    File subdirReport = new File(subdir, "target/site/jacoco/jacoco.xml");
+                    if (subdirReport.exists() && !reports.contains(subdirReport)) {
+                        reports.add(subdirReport);
+                        getLog().info("Found subproject Jacoco report: " + subdirReport.getAbsolutePath());
+                    }
+                }
+            }
+        }
+
+        return reports;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes the per-commit diff coverage of a commit range as a CSV table or a JSON array.
+ * Commits without coverable lines have an empty percentage.
+ */
+public class CommitRangeReportWriter {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    public void writeCsv(Map<GitClient.Commit, DiffCoverageResult> results, File file) throws IOException {
+        createParent(file);
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            out.write("commit,date,author,subject,total_lines,covered_lines,missing_lines,percent_covered\n");
+            for (Map.Entry<GitClient.Commit, DiffCoverageResult> entry : results.entrySet()) {
+                GitClient.Commit commit = entry.getKey();
+                DiffCoverageResult result = entry.getValue();
+                out.write(commit.getId() + "," + commit.getDate() + "," + csv(commit.getAuthor()) + ","
+                        + csv(commit.getSubject()) + "," + result.getTotalLines() + ","
+                        + (result.getTotalLines() - result.getTotalViolations()) + ","
+                        + result.getTotalViolations() + ","
+                        + (result.getTotalLines() == 0 ? "" : String.valueOf(result.getTotalPercentCovered())) + "\n");
+            }
+        }
+    }
+
+    public void writeJson(Map<GitClient.Commit, DiffCoverageResult> results, File file) throws IOException {
+        createParent(file);
+        DiffCoverageJsonWriter resultWriter = new DiffCoverageJsonWriter();
+        try (JsonGenerator json = factory.createGenerator(file, JsonEncoding.UTF8)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartArray();
+            for (Map.Entry<GitClient.Commit, DiffCoverageResult> entry : results.entrySet()) {
+                GitClient.Commit commit = entry.getKey();
+                json.writeStartObject();
+                json.writeStringField("commit", commit.getId());
+                json.writeStringField("date", commit.getDate());
+                json.writeStringField("author", commit.getAuthor());
+                json.writeStringField("subject", commit.getSubject());
+                resultWriter.writeFields(json, entry.getValue());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void createParent(File file) {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+    }
+}
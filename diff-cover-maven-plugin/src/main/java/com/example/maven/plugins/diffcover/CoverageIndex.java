@@ -0,0 +1,69 @@
+package com.example.maven.plugins.diffcover;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory line coverage for all source files of a build, keyed by repository-relative
+ * path when the file was resolved through a {@link SourceRootIndex}, otherwise by the
+ * package-relative path JaCoCo reports (e.g. {@code com/example/App.java}).
+ */
+public class CoverageIndex {
+
+    private final Map<String, FileCoverage> files = new HashMap<>();
+
+    public FileCoverage getOrCreate(String path) {
+        FileCoverage coverage = files.get(path);
+        if (coverage == null) {
+            coverage = new FileCoverage(path);
+            files.put(path, coverage);
+        }
+        return coverage;
+    }
+
+    public void add(FileCoverage coverage) {
+        FileCoverage existing = files.get(coverage.getPath());
+        if (existing == null) {
+            files.put(coverage.getPath(), coverage);
+        } else {
+            existing.merge(coverage);
+        }
+    }
+
+    /**
+     * Merges a copy of every entry of the other index into this one; the other index is not modified.
+     */
+    public void merge(CoverageIndex other) {
+        for (FileCoverage file : other.getFiles()) {
+            getOrCreate(file.getPath()).merge(file);
+        }
+    }
+
+    public FileCoverage get(String path) {
+        return files.get(path);
+    }
+
+    /**
+     * Looks up a repository-relative path (as reported by git) with a single lookup.
+     * Entries whose report path could not be resolved through the source roots stay keyed
+     * by package path and are not matched by suffix: the same package path can exist in
+     * several modules, and a guess would attribute one module's coverage to another.
+     */
+    public FileCoverage find(String repoPath) {
+        return files.get(repoPath);
+    }
+
+    public Collection<FileCoverage> getFiles() {
+        return Collections.unmodifiableCollection(files.values());
+    }
+
+    public int size() {
+        return files.size();
+    }
+
+    public boolean isEmpty() {
+        return files.isEmpty();
+    }
+}
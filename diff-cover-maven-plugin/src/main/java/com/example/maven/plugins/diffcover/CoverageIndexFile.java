@@ -0,0 +1,141 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact, gzip-compressed binary form of a {@link CoverageIndex} plus string metadata.
+ *
+ * Only the covered/missed line bitmaps of each file are stored. Used for baseline
+ * snapshots and for per-shard diff coverage results.
+ */
+public class CoverageIndexFile {
+
+    private static final int MAGIC = 0x44435331; // "DCS1"
+    private static final int FORMAT_VERSION = 2;
+    // 16M satırlık bir dosya bile 2^18 word'e sığar; daha büyüğü bozuk dosyadır
+    private static final int MAX_WORDS = 1 << 18;
+
+    private final Map<String, String> metadata;
+    private final CoverageIndex index;
+
+    public CoverageIndexFile(Map<String, String> metadata, CoverageIndex index) {
+        this.metadata = metadata;
+        this.index = index;
+    }
+
+    public Map<String, String> getMetadata() {
+        return Collections.unmodifiableMap(metadata);
+    }
+
+    public String getMetadata(String key) {
+        return metadata.get(key);
+    }
+
+    public CoverageIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Writes the file atomically so concurrent readers never see a partial file.
+     */
+    public void write(File target) throws IOException {
+        File directory = target.getAbsoluteFile().getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create directory: " + directory.getAbsolutePath());
+        }
+
+        File temp = File.createTempFile(target.getName(), ".tmp", directory);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(new FileOutputStream(temp))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(metadata.size());
+                for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeUTF(entry.getValue());
+                }
+                out.writeInt(index.size());
+                for (FileCoverage file : index.getFiles()) {
+                    out.writeUTF(file.getPath());
+                    writeBits(out, file.getCoveredLines());
+                    writeBits(out, file.getMissedLines());
+                }
+            }
+            Files.move(temp.toPath(), target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    public static CoverageIndexFile read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a coverage index file: " + file.getAbsolutePath());
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported coverage index format version " + version + ": "
+                        + file.getAbsolutePath());
+            }
+
+            Map<String, String> metadata = new LinkedHashMap<>();
+            int metadataCount = readCount(in, Integer.MAX_VALUE, file);
+            for (int i = 0; i < metadataCount; i++) {
+                metadata.put(in.readUTF(), in.readUTF());
+            }
+
+            CoverageIndex index = new CoverageIndex();
+            int fileCount = readCount(in, Integer.MAX_VALUE, file);
+            for (int i = 0; i < fileCount; i++) {
+                String path = in.readUTF();
+                BitSet covered = readBits(in, file);
+                BitSet missed = readBits(in, file);
+                index.add(new FileCoverage(path, covered, missed));
+            }
+            return new CoverageIndexFile(metadata, index);
+        }
+    }
+
+    private static void writeBits(DataOutputStream out, BitSet bits) throws IOException {
+        long[] words = bits.toLongArray();
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    private static BitSet readBits(DataInputStream in, File file) throws IOException {
+        long[] words = new long[readCount(in, MAX_WORDS, file)];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private static int readCount(DataInputStream in, int max, File file) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > max) {
+            throw new IOException("Corrupt coverage index file (invalid count " + count + "): "
+                    + file.getAbsolutePath());
+        }
+        return count;
+    }
+}
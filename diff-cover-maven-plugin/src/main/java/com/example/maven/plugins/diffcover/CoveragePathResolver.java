@@ -0,0 +1,82 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Turns the file names found in coverage reports into repository-relative paths.
+ *
+ * Package-relative names (JaCoCo) go through the {@link SourceRootIndex}; absolute or
+ * report-relative names (Cobertura, LCOV) are relativized against the repository root.
+ * Names that cannot be resolved are returned unchanged.
+ */
+public class CoveragePathResolver {
+
+    private final SourceRootIndex sourceRoots;
+    private final File moduleDir;
+
+    /**
+     * @param sourceRoots source roots of the build, may be {@code null}
+     * @param moduleDir   base directory of the module that produced the report, may be {@code null}
+     */
+    public CoveragePathResolver(SourceRootIndex sourceRoots, File moduleDir) {
+        this.sourceRoots = sourceRoots;
+        this.moduleDir = moduleDir;
+    }
+
+    public String resolvePackagePath(String packagePath) throws IOException {
+        if (sourceRoots == null) {
+            return packagePath;
+        }
+        String repoPath = sourceRoots.resolve(packagePath, moduleDir);
+        return repoPath != null ? repoPath : packagePath;
+    }
+
+    /**
+     * @param baseDirs directories a relative name may be relative to, tried in order
+     *                 before the module directory and the repository root
+     */
+    public String resolveFile(String name, List<File> baseDirs) throws IOException {
+        Path path = Paths.get(name);
+        if (!path.isAbsolute()) {
+            Path found = findExisting(name, baseDirs);
+            if (found != null) {
+                path = found;
+            }
+        }
+
+        Path repositoryRoot = sourceRoots != null ? sourceRoots.getRepositoryRoot() : null;
+        if (path.isAbsolute() && repositoryRoot != null) {
+            Path normalized = path.toAbsolutePath().normalize();
+            if (normalized.startsWith(repositoryRoot)) {
+                return toUnixPath(repositoryRoot.relativize(normalized));
+            }
+        }
+        // JVM araçlarının Cobertura çıktısı package-relative isim kullanır
+        return resolvePackagePath(toUnixPath(path));
+    }
+
+    private Path findExisting(String name, List<File> baseDirs) {
+        for (File baseDir : baseDirs) {
+            Path candidate = baseDir.toPath().resolve(name);
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        if (moduleDir != null && Files.isRegularFile(moduleDir.toPath().resolve(name))) {
+            return moduleDir.toPath().resolve(name);
+        }
+        if (sourceRoots != null && Files.isRegularFile(sourceRoots.getRepositoryRoot().resolve(name))) {
+            return sourceRoots.getRepositoryRoot().resolve(name);
+        }
+        return null;
+    }
+
+    private static String toUnixPath(Path path) {
+        return path.toString().replace(File.separatorChar, '/');
+    }
+}
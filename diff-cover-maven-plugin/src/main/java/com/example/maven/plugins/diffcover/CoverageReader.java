@@ -0,0 +1,28 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Service provider interface for coverage report formats.
+ *
+ * Implementations stream a report into the shared {@link CoverageIndex} line by line,
+ * without building a DOM. Readers are discovered with {@link java.util.ServiceLoader}
+ * ({@code META-INF/services/com.example.maven.plugins.diffcover.CoverageReader}), so
+ * additional formats can be added as plugin dependencies.
+ */
+public interface CoverageReader {
+
+    /**
+     * Short format name used in log messages, e.g. {@code jacoco}.
+     */
+    String getName();
+
+    /**
+     * Returns whether this reader understands a report starting with the given text
+     * (the first few KB, decoded as ISO-8859-1).
+     */
+    boolean supports(String head);
+
+    void read(File report, CoverageIndex index, CoveragePathResolver paths) throws IOException;
+}
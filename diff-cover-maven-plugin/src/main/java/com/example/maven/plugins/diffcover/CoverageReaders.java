@@ -0,0 +1,49 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the available {@link CoverageReader}s; picks the reader for a report
+ * by sniffing its first bytes rather than trusting the file name.
+ */
+public class CoverageReaders {
+
+    private static final int HEAD_SIZE = 4096;
+
+    private final List<CoverageReader> readers = new ArrayList<>();
+
+    public CoverageReaders(ClassLoader classLoader) {
+        for (CoverageReader reader : ServiceLoader.load(CoverageReader.class, classLoader)) {
+            readers.add(reader);
+        }
+    }
+
+    public CoverageReader select(File report) throws IOException {
+        String head = readHead(report);
+        for (CoverageReader reader : readers) {
+            if (reader.supports(head)) {
+                return reader;
+            }
+        }
+        throw new IOException("Unrecognized coverage report format: " + report.getAbsolutePath());
+    }
+
+    private static String readHead(File report) throws IOException {
+        byte[] buffer = new byte[HEAD_SIZE];
+        int length = 0;
+        try (InputStream in = new FileInputStream(report)) {
+            int read;
+            while (length < buffer.length && (read = in.read(buffer, length, buffer.length - length)) > 0) {
+                length += read;
+            }
+        }
+        return new String(buffer, 0, length, StandardCharsets.ISO_8859_1);
+    }
+}
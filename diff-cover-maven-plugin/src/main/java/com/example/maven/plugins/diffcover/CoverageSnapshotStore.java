@@ -0,0 +1,55 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * File-system store for compact coverage snapshots: one directory per commit holding
+ * one file per published module.
+ *
+ * A snapshot holds only the covered/missed line bitmaps of each source file,
+ * gzip-compressed, so the coverage of a base commit can be compared without
+ * checking it out and rebuilding it. Modules of a reactor build publish separately
+ * and are merged when the commit's snapshot is loaded.
+ */
+public class CoverageSnapshotStore {
+
+    private static final String EXTENSION = ".dcsnap";
+
+    private final File directory;
+
+    public CoverageSnapshotStore(File directory) {
+        this.directory = directory;
+    }
+
+    public File fileFor(String commitId, String moduleKey) {
+        return new File(new File(directory, commitId), moduleKey + EXTENSION);
+    }
+
+    public File publish(String commitId, String moduleKey, CoverageIndex index) throws IOException {
+        File target = fileFor(commitId, moduleKey);
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("commit", commitId);
+        metadata.put("module", moduleKey);
+        new CoverageIndexFile(metadata, index).write(target);
+        return target;
+    }
+
+    /**
+     * Loads and merges the module snapshots of the given commit, or returns {@code null}
+     * if none was published.
+     */
+    public CoverageIndex load(String commitId) throws IOException {
+        File[] files = new File(directory, commitId).listFiles(file -> file.isFile() && file.getName().endsWith(EXTENSION));
+        if (files == null || files.length == 0) {
+            return null;
+        }
+        CoverageIndex index = new CoverageIndex();
+        for (File file : files) {
+            index.merge(CoverageIndexFile.read(file).getIndex());
+        }
+        return index;
+    }
+}
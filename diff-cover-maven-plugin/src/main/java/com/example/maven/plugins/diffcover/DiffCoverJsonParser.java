@@ -0,0 +1,104 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streaming reader for diff-cover's {@code --json-report} output (and the plugin's own
+ * reports, which use the same layout) into a {@link DiffCoverageResult}.
+ *
+ * Tokens are consumed one at a time and line numbers go straight into bitmaps,
+ * so memory does not grow with the size of the JSON document.
+ */
+public class DiffCoverJsonParser {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    public DiffCoverageResult parse(File report) throws IOException {
+        try (JsonParser json = factory.createParser(report)) {
+            expect(json.nextToken(), JsonToken.START_OBJECT, json);
+
+            String diffName = null;
+            List<DiffCoverageResult.FileResult> files = new ArrayList<>();
+            while (json.nextToken() == JsonToken.FIELD_NAME) {
+                String field = json.getCurrentName();
+                json.nextToken();
+                if ("diff_name".equals(field)) {
+                    diffName = json.getValueAsString();
+                } else if ("src_stats".equals(field)) {
+                    readSourceStats(json, files);
+                } else {
+                    json.skipChildren();
+                }
+            }
+
+            DiffCoverageResult result = new DiffCoverageResult(diffName);
+            for (DiffCoverageResult.FileResult file : files) {
+                result.addFile(file);
+            }
+            return result;
+        }
+    }
+
+    private static void readSourceStats(JsonParser json, List<DiffCoverageResult.FileResult> files)
+            throws IOException {
+        expect(json.currentToken(), JsonToken.START_OBJECT, json);
+        while (json.nextToken() == JsonToken.FIELD_NAME) {
+            String path = json.getCurrentName();
+            expect(json.nextToken(), JsonToken.START_OBJECT, json);
+
+            BitSet covered = new BitSet();
+            BitSet violations = new BitSet();
+            while (json.nextToken() == JsonToken.FIELD_NAME) {
+                String field = json.getCurrentName();
+                json.nextToken();
+                if ("covered_lines".equals(field)) {
+                    readLines(json, covered);
+                } else if ("violation_lines".equals(field)) {
+                    readLines(json, violations);
+                } else {
+                    json.skipChildren();
+                }
+            }
+            files.add(new DiffCoverageResult.FileResult(path, covered, violations));
+        }
+    }
+
+    /**
+     * Reads an array of line numbers; ranges such as "12-15" are expanded.
+     */
+    private static void readLines(JsonParser json, BitSet lines) throws IOException {
+        expect(json.currentToken(), JsonToken.START_ARRAY, json);
+        JsonToken token;
+        while ((token = json.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                lines.set(json.getIntValue());
+            } else if (token == JsonToken.VALUE_STRING) {
+                String value = json.getText().trim();
+                int dash = value.indexOf('-');
+                if (dash < 0) {
+                    lines.set(Integer.parseInt(value));
+                } else {
+                    lines.set(Integer.parseInt(value.substring(0, dash).trim()),
+                            Integer.parseInt(value.substring(dash + 1).trim()) + 1);
+                }
+            } else {
+                json.skipChildren();
+            }
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, JsonParser json) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected JSON token " + actual + " (expected " + expected + ") at "
+                    + json.getCurrentLocation());
+        }
+    }
+}
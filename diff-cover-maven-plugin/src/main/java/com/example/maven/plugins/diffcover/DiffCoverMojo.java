@@ -1,21 +1,41 @@
 package com.example.maven.plugins.diffcover;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.io.IOUtils;
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.jacoco.core.data.ExecutionDataStore;
 
 /**
  * Maven plugin for running diff-cover with embedded Python environment.
@@ -27,24 +47,7 @@ import org.apache.maven.project.MavenProject;
  * @since 1.0.0
  */
 @Mojo(name = "diff-coverage", defaultPhase = LifecyclePhase.VERIFY, requiresProject = true)
-public class DiffCoverMojo extends AbstractMojo {
-
-    @Parameter(defaultValue = "${project}", readonly = true, required = true)
-    private MavenProject project;
-
-    /**
-     * Base branch to compare against (e.g., origin/main, origin/develop, main)
-     * Can be overridden with -Ddiff-cover.branch=branch_name
-     */
-    @Parameter(property = "diff-cover.branch", defaultValue = "origin/main")
-    private String branch;
-
-    /**
-     * Minimum coverage percentage required for diff-cover to pass.
-     * Can be overridden with -Ddiff-cover.failUnder=75
-     */
-    @Parameter(property = "diff-cover.failUnder", defaultValue = "80")
-    private int failUnder;
+public class DiffCoverMojo extends AbstractDiffCoverMojo {
 
     /**
      * Report formats to generate: html, console, json (comma-separated).
@@ -53,13 +56,6 @@ public class DiffCoverMojo extends AbstractMojo {
     @Parameter(property = "diff-cover.reportFormats", defaultValue = "html,console")
     private String reportFormats;
 
-    /**
-     * Skip diff-cover execution.
-     * Can be overridden with -Ddiff-cover.skip=true
-     */
-    @Parameter(property = "diff-cover.skip", defaultValue = "false")
-    private boolean skip;
-
     /**
      * Custom Python executable path (if specified, embedded Python will be skipped).
      * Can be overridden with -Ddiff-cover.pythonExecutable=/path/to/python3
@@ -68,46 +64,53 @@ public class DiffCoverMojo extends AbstractMojo {
     private String pythonExecutable;
 
     /**
-     * Additional diff-cover arguments (space-separated).
+     * Additional diff-cover arguments (space-separated). When the diff is evaluated in-process
+     * (several compare branches or agentAddress), only --ignore-staged, --ignore-unstaged,
+     * --ignore-whitespace, --diff-range-notation and output-only options are accepted.
      * Can be overridden with -Ddiff-cover.additionalArgs="--ignore-staged --ignore-unstaged"
      */
     @Parameter(property = "diff-cover.additionalArgs")
     private String additionalArgs;
 
     /**
-     * Include only files matching these patterns (comma-separated glob patterns).
-     * Can be overridden with -Ddiff-cover.includePatterns="*.java,*.kt"
+     * Timeout for diff-cover execution in minutes.
+     * Can be overridden with -Ddiff-cover.timeoutMinutes=10
      */
-    @Parameter(property = "diff-cover.includePatterns")
-    private String includePatterns;
+    @Parameter(property = "diff-cover.timeoutMinutes", defaultValue = "5")
+    private int timeoutMinutes;
 
     /**
-     * Exclude files matching these patterns (comma-separated glob patterns).
-     * Can be overridden with -Ddiff-cover.excludePatterns="**\/target\/**,**\/*.generated.java"
+     * Verbose output from diff-cover.
+     * Can be overridden with -Ddiff-cover.verbose=true
      */
-    @Parameter(property = "diff-cover.excludePatterns")
-    private String excludePatterns;
+    @Parameter(property = "diff-cover.verbose", defaultValue = "false")
+    private boolean verbose;
 
     /**
-     * Custom output directory for reports (defaults to target/).
-     * Can be overridden with -Ddiff-cover.outputDirectory=reports/
+     * Report the per-file coverage delta against the merge-base when a baseline
+     * snapshot for it was published with the publish-snapshot goal.
+     * Can be overridden with -Ddiff-cover.coverageDelta=false
      */
-    @Parameter(property = "diff-cover.outputDirectory", defaultValue = "${project.build.directory}")
-    private String outputDirectory;
+    @Parameter(property = "diff-cover.coverageDelta", defaultValue = "true")
+    private boolean coverageDelta;
 
     /**
-     * Timeout for diff-cover execution in minutes.
-     * Can be overridden with -Ddiff-cover.timeoutMinutes=10
+     * Address (host:port) of a Jacoco agent running with output=tcpserver. When set, execution
+     * data is pulled from the agent and only the classes of the changed files are analyzed;
+     * no report files are read and the diff is evaluated in-process.
+     * Can be overridden with -Ddiff-cover.agentAddress=localhost:6300
      */
-    @Parameter(property = "diff-cover.timeoutMinutes", defaultValue = "5")
-    private int timeoutMinutes;
+    @Parameter(property = "diff-cover.agentAddress")
+    private String agentAddress;
 
     /**
-     * Verbose output from diff-cover.
-     * Can be overridden with -Ddiff-cover.verbose=true
+     * Reset the agent's execution data after pulling it.
+     * Can be overridden with -Ddiff-cover.agentReset=true
      */
-    @Parameter(property = "diff-cover.verbose", defaultValue = "false")
-    private boolean verbose;
+    @Parameter(property = "diff-cover.agentReset", defaultValue = "false")
+    private boolean agentReset;
+
+    private CoverageIndex coverageIndex;
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
@@ -117,29 +120,30 @@ public class DiffCoverMojo extends AbstractMojo {
         }
 
         logConfiguration();
+        List<CompareTarget> targets = parseCompareTargets();
 
         try {
-            // 1. Python ortamını hazırla
-            String pythonCmd = setupPythonEnvironment();
-            
-            // 2. Jacoco raporlarını bul
-            List<File> jacocoReports = findJacocoReports();
+            // Canlı agent: execution data doğrudan belleğe alınır, rapor dosyası yok
+            if (agentAddress != null && !agentAddress.trim().isEmpty()) {
+                evaluateBranches(targets, this::agentCoverage);
+                return;
+            }
             
-            if (jacocoReports.isEmpty()) {
-                getLog().warn("No Jacoco reports found. Make sure tests are run and Jacoco plugin is configured.");
-                getLog().warn("Expected locations:");
-                getLog().warn("  - " + project.getBuild().getDirectory() + "/site/jacoco/jacoco.xml");
-                if (project.getModules() != null) {
-                    for (String module : project.getModules()) {
-                        getLog().warn("  - " + module + "/target/site/jacoco/jacoco.xml");
-                    }
+            // Birden fazla branch: coverage bir kez okunur, her branch'in diff'i aynı index ile kesiştirilir
+            if (targets.size() > 1) {
+                List<File> reportFiles = findCoverageReports();
+                if (reportFiles.isEmpty()) {
+                    warnNoCoverageReports();
+                    return;
                 }
+                evaluateBranches(targets, changedFiles -> coverage(reportFiles));
                 return;
             }
             
-            // 3. diff-cover komutunu çalıştır
-            runDiffCover(pythonCmd, jacocoReports);
+            runSingleBranch(targets.get(0));
             
+        } catch (MojoExecutionException | MojoFailureException e) {
+            throw e;
         } catch (Exception e) {
             throw new MojoExecutionException("Failed to execute diff-cover", e);
         }
@@ -153,6 +157,12 @@ public class DiffCoverMojo extends AbstractMojo {
             getLog().info("Report Formats: " + reportFormats);
             getLog().info("Output Directory: " + outputDirectory);
             getLog().info("Timeout: " + timeoutMinutes + " minutes");
+            if (coverageDelta) {
+                getLog().info("Snapshot Directory: " + snapshotDirectory);
+            }
+            if (agentAddress != null) {
+                getLog().info("Jacoco Agent: " + agentAddress);
+            }
             if (pythonExecutable != null) {
                 getLog().info("Custom Python: " + pythonExecutable);
             } else {
@@ -171,94 +181,380 @@ public class DiffCoverMojo extends AbstractMojo {
         }
     }
 
-    private String setupPythonEnvironment() throws MojoExecutionException {
+    /**
+     * Returns the interpreter command prefix: the custom executable as-is, or the
+     * embedded Python with its isolated-mode options.
+     */
+    private List<String> setupPythonEnvironment() throws MojoExecutionException {
         if (pythonExecutable != null && !pythonExecutable.trim().isEmpty()) {
             getLog().info("Using custom Python executable: " + pythonExecutable);
             
             // Custom Python'un çalıştığını doğrula
-            try {
-                ProcessBuilder pb = new ProcessBuilder(pythonExecutable, "--version");
-                Process process = pb.start();
+            ProcessBuilder pb = new ProcessBuilder(pythonExecutable, "--version");
+            try (SupervisedProcess process = createProcessSupervisor().start("python --version", pb)) {
+                String version = IOUtils.toString(process.getProcess().getInputStream(), StandardCharsets.UTF_8);
                 int exitCode = process.waitFor();
                 
                 if (exitCode != 0) {
                     throw new MojoExecutionException("Custom Python executable failed: " + pythonExecutable);
                 }
                 
-                String version = IOUtils.toString(process.getInputStream(), StandardCharsets.UTF_8);
                 getLog().info("Custom Python version: " + version.trim());
                 
-            } catch (IOException | InterruptedException e) {
+            } catch (IOException e) {
                 throw new MojoExecutionException("Failed to verify custom Python executable", e);
             }
             
-            return pythonExecutable;
+            List<String> command = Collections.singletonList(pythonExecutable);
+            logInterpreterStartup(command);
+            return command;
         } else {
             getLog().info("Setting up embedded Python environment...");
-            EmbeddedPythonManager pythonManager = new EmbeddedPythonManager(getLog(), project.getBasedir());
+            EmbeddedPythonManager pythonManager = new EmbeddedPythonManager(getLog(), project.getBasedir(),
+                    createProcessSupervisor());
             
             if (getLog().isDebugEnabled()) {
                 getLog().debug(pythonManager.getEmbeddedPythonInfo());
             }
             
-            return pythonManager.setupEmbeddedPython();
+            List<String> command = EmbeddedPythonManager.pythonCommand(pythonManager.setupEmbeddedPython());
+            logInterpreterStartup(command);
+            return command;
         }
     }
 
-    private List<File> findJacocoReports() {
-        List<File> reports = new ArrayList<>();
-        
-        // Ana proje için jacoco raporunu bul
-        File mainReport = new File(project.getBuild().getDirectory(), "site/jacoco/jacoco.xml");
-        if (mainReport.exists()) {
-            reports.add(mainReport);
-            getLog().info("Found Jacoco report: " + mainReport.getAbsolutePath());
+    /**
+     * In debug mode, times one interpreter launch that only imports diff_cover, so the
+     * startup cost (interpreter, bytecode, imports) is reported apart from diff-cover's
+     * own run. Skipped otherwise: the extra launch would double the startup cost.
+     */
+    private void logInterpreterStartup(List<String> pythonCmd) {
+        if (!getLog().isDebugEnabled()) {
+            return;
         }
-        
-        // Alt modüller için jacoco raporlarını bul (pom.xml'deki modules)
-        if (project.getModules() != null && !project.getModules().isEmpty()) {
-            for (String module : project.getModules()) {
-                File moduleReport = new File(project.getBasedir(), module + "/target/site/jacoco/jacoco.xml");
-                if (moduleReport.exists()) {
-                    reports.add(moduleReport);
-                    getLog().info("Found module Jacoco report: " + moduleReport.getAbsolutePath());
+        List<String> command = new ArrayList<>(pythonCmd);
+        command.add("-c");
+        command.add("import diff_cover");
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.directory(project.getBasedir());
+        pb.redirectErrorStream(true);
+        long startNanos = System.nanoTime();
+        try (SupervisedProcess process = createProcessSupervisor().start("python -c", pb)) {
+            String output = IOUtils.toString(process.getProcess().getInputStream(), StandardCharsets.UTF_8);
+            if (process.waitFor() != 0) {
+                // Ölçüm başarısız olsa da build devam eder; diff-cover hatayı kendisi bildirir
+                getLog().debug("Could not import diff_cover: " + output.trim());
+                return;
+            }
+            getLog().debug("Python interpreter startup (import diff_cover): "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms");
+        } catch (IOException | MojoExecutionException e) {
+            getLog().debug("Could not measure Python interpreter startup: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the independent preparation steps as a small dependency graph and joins
+     * them only where diff-cover is launched:
+     * <pre>
+     *   python runtime (extract/validate/pip) -------------+
+     *   report discovery + source-root index --+-----------+--> diff-cover
+     *   merge-base ----------------------------+-----------+
+     *        +--> baseline snapshot -----------+--> coverage delta (log only)
+     * </pre>
+     * On cold agents the runtime extraction is hidden behind the report and git work.
+     * The coverage delta runs alongside diff-cover and only warns when it fails.
+     */
+    private void runSingleBranch(CompareTarget target) throws MojoExecutionException, MojoFailureException {
+        ExecutorService executor = Executors.newFixedThreadPool(3, daemonThreads("diff-cover-prepare"));
+        // 1. Python ortamını hazırla (en uzun süren adım, arka planda başlar)
+        CompletableFuture<List<String>> python = async(executor, this::setupPythonEnvironment);
+        CompletableFuture<Void> delta = CompletableFuture.completedFuture(null);
+        try {
+            // 2. Coverage raporlarını bul, source root'ları indeksle (--src-roots için)
+            CompletableFuture<List<File>> reports = async(executor, () -> {
+                List<File> found = findCoverageReports();
+                if (!found.isEmpty()) {
+                    getSourceRootIndex();
                 }
+                return found;
+            });
+            
+            // 3. merge-base'i çöz (compare branch'i diff-cover'dan önce doğrular), baseline snapshot'ı yükle
+            GitClient git = createGitClient();
+            CompletableFuture<String> mergeBase = async(executor, () -> git.mergeBase(target.branch, "HEAD"));
+            if (coverageDelta) {
+                CompletableFuture<CoverageIndex> baseline = mergeBase.thenApplyAsync(this::loadBaseline, executor);
+                CompletableFuture<Set<String>> changedFiles = baseline.thenCombineAsync(mergeBase,
+                        (base, commit) -> base == null ? null : unchecked(() -> git.changedLines(commit).keySet()),
+                        executor);
+                
+                // 4. Baseline snapshot varsa değişen dosyaların coverage farkını raporla
+                delta = CompletableFuture.allOf(reports, changedFiles).thenRunAsync(() -> {
+                    List<File> found = reports.join();
+                    CoverageIndex base = baseline.join();
+                    if (base != null && !found.isEmpty()) {
+                        logCoverageDelta(target.branch, mergeBase.join(), base,
+                                unchecked(() -> coverage(found)), changedFiles.join());
+                    }
+                }, executor).exceptionally(e -> {
+                    // Delta yalnızca bilgi amaçlı; Java okuyucularının tanımadığı bir rapor build'i düşürmemeli
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    getLog().warn("Could not compute the coverage delta: " + cause.getMessage());
+                    return null;
+                });
             }
+            
+            List<File> reportFiles = await(reports);
+            if (reportFiles.isEmpty()) {
+                warnNoCoverageReports();
+                // Yarım kalmış bir extraction bırakmamak için runtime hazırlığını bekle
+                await(python);
+                return;
+            }
+            await(mergeBase);
+            
+            // 5. diff-cover komutunu çalıştır
+            runDiffCover(await(python), reportFiles, target);
+        } finally {
+            // Delta diff-cover ile paralel çalışır ve hata fırlatmaz; logları goal bitmeden yazılsın
+            delta.join();
+            // Hangi yoldan çıkılırsa çıkılsın runtime hazırlığı (extract/pip) yarıda bırakılmaz
+            try {
+                python.join();
+            } catch (CompletionException | CancellationException e) {
+                getLog().debug("Python setup did not complete: " + e.getMessage());
+            }
+            executor.shutdown();
         }
-        
-        // Reaktör projelerinde de ara (Maven session'daki tüm projeler)
-        if (project.getCollectedProjects() != null) {
-            for (MavenProject collectedProject : project.getCollectedProjects()) {
-                File collectedReport = new File(collectedProject.getBuild().getDirectory(), "site/jacoco/jacoco.xml");
-                if (collectedReport.exists() && !reports.contains(collectedReport)) {
-                    reports.add(collectedReport);
-                    getLog().info("Found collected project Jacoco report: " + collectedReport.getAbsolutePath());
+    }
+
+    /**
+     * A preparation step that may throw checked exceptions.
+     */
+    private interface Step<T> {
+        T call() throws Exception;
+    }
+
+    private static <T> CompletableFuture<T> async(ExecutorService executor, Step<T> step) {
+        return CompletableFuture.supplyAsync(() -> unchecked(step), executor);
+    }
+
+    private static <T> T unchecked(Step<T> step) {
+        try {
+            return step.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Joins a preparation step, rethrowing the original Mojo exception it failed with.
+     */
+    private static <T> T await(CompletableFuture<T> future) throws MojoExecutionException, MojoFailureException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof MojoExecutionException) {
+                throw (MojoExecutionException) cause;
+            }
+            if (cause instanceof MojoFailureException) {
+                throw (MojoFailureException) cause;
+            }
+            throw new MojoExecutionException("Failed to prepare diff-cover: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private List<CompareTarget> parseCompareTargets() throws MojoExecutionException {
+        List<CompareTarget> targets = new ArrayList<>();
+        for (String entry : branch.split(",")) {
+            entry = entry.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            // ':' git ref isimlerinde geçersiz olduğundan eşik ayracı olarak güvenli
+            int separator = entry.lastIndexOf(':');
+            if (separator < 0) {
+                targets.add(new CompareTarget(entry, failUnder));
+            } else {
+                try {
+                    int threshold = Integer.parseInt(entry.substring(separator + 1).trim());
+                    targets.add(new CompareTarget(entry.substring(0, separator).trim(), threshold));
+                } catch (NumberFormatException e) {
+                    throw new MojoExecutionException("Invalid threshold in branch entry: " + entry);
                 }
             }
         }
-        
-        // Parent project'in execution root'unu kontrol et
-        if (project.isExecutionRoot() && project.hasParent()) {
-            // Multi-module parent project durumunda alt dizinleri tara
-            File[] subdirs = project.getBasedir().listFiles(File::isDirectory);
-            if (subdirs != null) {
-                for (File subdir : subdirs) {
-                    File subdirReport = new File(subdir, "target/site/jacoco/jacoco.xml");
-                    if (subdirReport.exists() && !reports.contains(subdirReport)) {
-                        reports.add(subdirReport);
-                        getLog().info("Found subproject Jacoco report: " + subdirReport.getAbsolutePath());
-                    }
+        if (targets.isEmpty()) {
+            throw new MojoExecutionException("No compare branch configured");
+        }
+        return targets;
+    }
+
+    private CoverageIndex coverage(List<File> reportFiles) throws MojoExecutionException {
+        if (coverageIndex == null) {
+            coverageIndex = readCoverage(reportFiles);
+        }
+        return coverageIndex;
+    }
+
+    /**
+     * Supplies the coverage for an in-process evaluation, given the union of the changed files.
+     */
+    private interface CoverageSource {
+        CoverageIndex load(Set<String> changedFiles) throws MojoExecutionException;
+    }
+
+    private CoverageIndex agentCoverage(Set<String> changedFiles) throws MojoExecutionException {
+        JacocoAgentClient agent = JacocoAgentClient.forAddress(agentAddress,
+                (int) TimeUnit.MINUTES.toMillis(timeoutMinutes));
+        long start = System.nanoTime();
+        ExecutionDataStore executionData = agent.dump(agentReset);
+
+        Map<File, File> classDirectories = new LinkedHashMap<>();
+        for (MavenProject reactorProject : reactorProjects) {
+            File outputDirectory = new File(reactorProject.getBuild().getOutputDirectory());
+            if (outputDirectory.isDirectory()) {
+                classDirectories.put(outputDirectory, reactorProject.getBasedir());
+            }
+        }
+        try {
+            CoverageIndex index = new ExecutionDataAnalyzer(getLog(), executionData, getSourceRootIndex())
+                    .analyze(classDirectories, changedFiles);
+            getLog().info(String.format("Pulled execution data of %d classes from Jacoco agent at %s, "
+                    + "%d changed files analyzed in %d ms", executionData.getContents().size(), agent.getAddress(),
+                    index.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            return index;
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to analyze execution data from Jacoco agent at " + agentAddress, e);
+        }
+    }
+
+    private void evaluateBranches(List<CompareTarget> targets, CoverageSource coverageSource)
+                throws MojoExecutionException, MojoFailureException {
+        DiffOptions options = DiffOptions.parse(additionalArgs);
+        GitClient git = createGitClient();
+        Map<CompareTarget, String> mergeBases = new LinkedHashMap<>();
+        Map<CompareTarget, Map<String, SortedSet<Integer>>> changedLinesByTarget = new LinkedHashMap<>();
+        Set<String> changedFiles = new LinkedHashSet<>();
+        for (CompareTarget target : targets) {
+            String mergeBase = git.mergeBase(target.branch, "HEAD");
+            // "..": branch'in kendisiyle karşılaştır, "...": merge-base ile (diff-cover varsayılanı)
+            String diffBase = options.twoDotNotation ? git.revParse(target.branch) : mergeBase;
+            Map<String, SortedSet<Integer>> changedLines = git.changedLines(diffBase,
+                    !options.ignoreStaged, !options.ignoreUnstaged, options.ignoreWhitespace);
+            mergeBases.put(target, mergeBase);
+            changedLinesByTarget.put(target, changedLines);
+            changedFiles.addAll(changedLines.keySet());
+        }
+
+        CoverageIndex index = coverageSource.load(changedFiles);
+        DiffCoverageCalculator calculator = new DiffCoverageCalculator(index,
+                new PathPatternFilter(includePatterns, excludePatterns));
+        List<String> failures = new ArrayList<>();
+
+        for (CompareTarget target : targets) {
+            String mergeBase = mergeBases.get(target);
+            Map<String, SortedSet<Integer>> changedLines = changedLinesByTarget.get(target);
+
+            DiffCoverageResult result = calculator.calculate(options.diffName(target.branch), changedLines);
+            logResult(result);
+            writeBranchReports(target, result);
+
+            if (coverageDelta) {
+                CoverageIndex baseline = loadBaseline(mergeBase);
+                if (baseline != null) {
+                    logCoverageDelta(target.branch, mergeBase, baseline, index, changedLines.keySet());
                 }
             }
+
+            if (result.getTotalPercentCovered() < target.failUnder) {
+                failures.add(String.format("%s: %d%% < %d%%", target.branch,
+                        result.getTotalPercentCovered(), target.failUnder));
+            } else {
+                getLog().info(String.format("✅ %s: coverage %d%% meets the %d%% threshold", target.branch,
+                        result.getTotalPercentCovered(), target.failUnder));
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            String message = "❌ diff-cover failed: Coverage is below threshold for " + String.join(", ", failures);
+            getLog().error(message);
+            throw new MojoFailureException(message);
+        }
+    }
+
+    private void writeBranchReports(CompareTarget target, DiffCoverageResult result) throws MojoExecutionException {
+        for (String format : reportFormats.toLowerCase().split(",")) {
+            format = format.trim();
+            if ("json".equals(format)) {
+                File jsonReport = new File(outputDirectory,
+                        "diff-cover-report-" + target.branch.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+                try {
+                    new DiffCoverageJsonWriter().write(result, jsonReport);
+                } catch (IOException e) {
+                    throw new MojoExecutionException("Failed to write JSON report: " + jsonReport.getAbsolutePath(), e);
+                }
+                getLog().info("JSON report generated: " + jsonReport.getAbsolutePath());
+            } else if ("html".equals(format)) {
+                getLog().warn("HTML reports are only generated by diff-cover for a single compare branch with report files; use json instead");
+            }
+        }
+    }
+
+    private CoverageIndex loadBaseline(String mergeBase) {
+        try {
+            CoverageIndex baseline = createSnapshotStore().load(mergeBase);
+            if (baseline == null) {
+                getLog().info("No baseline snapshot for merge-base " + mergeBase + ", skipping coverage delta");
+            }
+            return baseline;
+        } catch (IOException e) {
+            getLog().warn("Could not read baseline snapshot for " + mergeBase + ": " + e.getMessage());
+            return null;
         }
-        
-        return reports;
     }
 
-    private void runDiffCover(String pythonCmd, List<File> jacocoReports) 
+    private void logCoverageDelta(String compareBranch, String mergeBase, CoverageIndex baseline,
+                                  CoverageIndex current, Set<String> changedFiles) {
+        getLog().info("Coverage delta against " + compareBranch + " (" + mergeBase + "):");
+        int reported = 0;
+        for (String path : changedFiles) {
+            FileCoverage after = current.find(path);
+            if (after == null) {
+                continue;
+            }
+            FileCoverage before = baseline.find(path);
+            if (before == null) {
+                getLog().info(String.format("  %-60s %6s -> %6.2f%% (new)", path, "-", after.getCoveragePercent()));
+            } else {
+                double delta = after.getCoveragePercent() - before.getCoveragePercent();
+                getLog().info(String.format("  %-60s %6.2f%% -> %6.2f%% (%+.2f)", path,
+                        before.getCoveragePercent(), after.getCoveragePercent(), delta));
+            }
+            reported++;
+        }
+        if (reported == 0) {
+            getLog().info("  No changed files with coverage data");
+        }
+    }
+
+    private void runDiffCover(List<String> pythonCmd, List<File> reportFiles, CompareTarget target) 
                 throws MojoExecutionException, MojoFailureException {
         try {
-            List<String> command = buildDiffCoverCommand(pythonCmd, jacocoReports);
+            List<String> command = buildDiffCoverCommand(pythonCmd, reportFiles, target);
             
             getLog().info("Running diff-cover command:");
             getLog().info("  " + String.join(" ", command));
@@ -267,57 +563,126 @@ public class DiffCoverMojo extends AbstractMojo {
             pb.directory(project.getBasedir());
             pb.redirectErrorStream(true);
             
-            if (verbose) {
-                pb.inheritIO(); // Show output in real-time
-            }
-            
-            Process process = pb.start();
-            boolean finished = process.waitFor(timeoutMinutes, TimeUnit.MINUTES);
+            // Önceki çalıştırmadan kalan sonuç yanlışlıkla okunmasın
+            File resultFile = jsonResultFile();
+            Files.deleteIfExists(resultFile.toPath());
             
-            if (!finished) {
-                process.destroyForcibly();
-                throw new MojoExecutionException("diff-cover process timed out after " + timeoutMinutes + " minutes");
+            ProcessSupervisor supervisor = createProcessSupervisor();
+            long startNanos = System.nanoTime();
+            int exitCode;
+            OutputPump pump;
+            // Zaman aşımı, hata ya da kesmede diff-cover'ın tüm process ağacı sonlandırılır
+            try (SupervisedProcess process = supervisor.start("diff-cover", pb,
+                    supervisor.getLimits().withTimeout(TimeUnit.MINUTES.toMillis(timeoutMinutes)))) {
+                // Output ayrı thread'de okunur: pipe dolup process'i bloklamasın, ilk çıktı zamanı ölçülsün
+                pump = new OutputPump(process.getProcess().getInputStream());
+                pump.start();
+                
+                exitCode = process.waitFor();
+                pump.join();
+                getLog().info(process.getUsage());
             }
+            long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
             
-            int exitCode = process.exitValue();
+            DiffCoverageResult result = readResult(exitCode, resultFile);
             
-            // Output'u oku (verbose mode değilse)
+            // Sonucu yaz (verbose mode'da ham çıktı zaten canlı yazıldı)
             if (!verbose) {
-                String output = IOUtils.toString(process.getInputStream(), StandardCharsets.UTF_8);
-                if (!output.isEmpty()) {
-                    getLog().info("diff-cover output:");
-                    getLog().info(output);
+                if (result != null) {
+                    logResult(result);
+                } else {
+                    String output = pump.getOutput();
+                    if (!output.isEmpty()) {
+                        getLog().info("diff-cover output (last " + OutputPump.TAIL_LINES + " lines):");
+                        getLog().info(output);
+                    }
                 }
             }
             
-            handleDiffCoverExitCode(exitCode);
+            if (pump.getFirstOutputNanos() != null) {
+                getLog().info(String.format("diff-cover first output after %d ms, total run: %d ms",
+                        TimeUnit.NANOSECONDS.toMillis(pump.getFirstOutputNanos() - startNanos), totalMillis));
+            } else {
+                getLog().info("diff-cover produced no output, total run: " + totalMillis + " ms");
+            }
+            
+            handleDiffCoverExitCode(exitCode, target.failUnder, result);
             
         } catch (IOException | InterruptedException e) {
             throw new MojoExecutionException("Failed to run diff-cover", e);
         }
     }
 
-    private List<String> buildDiffCoverCommand(String pythonCmd, List<File> jacocoReports) {
+    /**
+     * diff-cover always writes its JSON report; the plugin reads the verdict from it.
+     */
+    private File jsonResultFile() {
+        return new File(outputDirectory, "diff-cover-report.json");
+    }
+
+    /**
+     * Parses diff-cover's JSON report into the result model, or returns {@code null}
+     * if diff-cover did not get far enough to write one.
+     */
+    private DiffCoverageResult readResult(int exitCode, File resultFile) {
+        if ((exitCode != 0 && exitCode != 1) || !resultFile.isFile()) {
+            return null;
+        }
+        try {
+            return new DiffCoverJsonParser().parse(resultFile);
+        } catch (IOException e) {
+            getLog().warn("Could not parse diff-cover JSON report " + resultFile.getAbsolutePath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private List<String> relativeSourceRoots() throws MojoExecutionException {
+        List<String> roots = new ArrayList<>();
+        Path baseDir = project.getBasedir().toPath().toAbsolutePath().normalize();
+        for (File root : getSourceRootIndex().getSourceRoots()) {
+            Path rootPath = root.toPath();
+            // diff-cover yolları çalışma dizinine göre çözer; proje dışındaki kökler gereksiz
+            if (rootPath.startsWith(baseDir)) {
+                String relative = baseDir.relativize(rootPath).toString().replace(File.separatorChar, '/');
+                roots.add(relative.isEmpty() ? "." : relative);
+            }
+        }
+        return roots;
+    }
+
+    private List<String> buildDiffCoverCommand(List<String> pythonCmd, List<File> reportFiles, CompareTarget target)
+                throws MojoExecutionException {
         List<String> command = new ArrayList<>();
         
         // Base command
-        command.add(pythonCmd);
+        command.addAll(pythonCmd);
         command.add("-m");
         command.add("diff_cover");
         
         // Coverage raporları ekle
-        for (File report : jacocoReports) {
+        for (File report : reportFiles) {
             command.add("--coverage-report");
             command.add(report.getAbsolutePath());
         }
         
+        // Source root'lar: JaCoCo package/sourcefile yollarının repo yollarına eşlenmesi için
+        List<String> srcRoots = relativeSourceRoots();
+        if (!srcRoots.isEmpty()) {
+            command.add("--src-roots");
+            command.addAll(srcRoots);
+        }
+        
         // Base branch
         command.add("--compare-branch");
-        command.add(branch);
+        command.add(target.branch);
         
         // Fail threshold
         command.add("--fail-under");
-        command.add(String.valueOf(failUnder));
+        command.add(String.valueOf(target.failUnder));
+        
+        // JSON raporu her zaman üretilir: sonuç modeli buradan okunur
+        command.add("--json-report");
+        command.add(jsonResultFile().getAbsolutePath());
         
         // Report formatları
         List<String> formats = Arrays.asList(reportFormats.toLowerCase().split(","));
@@ -334,10 +699,7 @@ public class DiffCoverMojo extends AbstractMojo {
                     break;
                     
                 case "json":
-                    File jsonReport = new File(outputDir, "diff-cover-report.json");
-                    command.add("--json-report");
-                    command.add(jsonReport.getAbsolutePath());
-                    getLog().info("JSON report will be generated: " + jsonReport.getAbsolutePath());
+                    getLog().info("JSON report will be generated: " + jsonResultFile().getAbsolutePath());
                     break;
                     
                 case "console":
@@ -381,7 +743,13 @@ public class DiffCoverMojo extends AbstractMojo {
         return command;
     }
 
-    private void handleDiffCoverExitCode(int exitCode) throws MojoExecutionException, MojoFailureException {
+    private void handleDiffCoverExitCode(int exitCode, int threshold, DiffCoverageResult result)
+                throws MojoExecutionException, MojoFailureException {
+        // JSON sonucu varsa karar ondan verilir, exit code sadece yedek
+        if (result != null) {
+            exitCode = result.getTotalPercentCovered() < threshold ? 1 : 0;
+        }
+        
         switch (exitCode) {
             case 0:
                 getLog().info("✅ diff-cover completed successfully - coverage requirements met");
@@ -389,7 +757,10 @@ public class DiffCoverMojo extends AbstractMojo {
                 
             case 1:
                 // diff-cover failed due to coverage threshold
-                String message = String.format("❌ diff-cover failed: Coverage is below %d%% threshold", failUnder);
+                String message = result != null
+                        ? String.format("❌ diff-cover failed: Coverage %d%% is below %d%% threshold (%d of %d changed lines not covered)",
+                                result.getTotalPercentCovered(), threshold, result.getTotalViolations(), result.getTotalLines())
+                        : String.format("❌ diff-cover failed: Coverage is below %d%% threshold", threshold);
                 getLog().error(message);
                 getLog().error("To fix this:");
                 getLog().error("  1. Add more tests for the changed code");
@@ -404,4 +775,131 @@ public class DiffCoverMojo extends AbstractMojo {
                 throw new MojoExecutionException("diff-cover failed with exit code: " + exitCode);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The additionalArgs options that change which lines diff-cover considers changed,
+     * applied when the diff is evaluated in-process. Other diff-cover options cannot be
+     * honoured there and are rejected rather than silently ignored.
+     */
+    private static final class DiffOptions {
+        // Yalnızca konsol çıktısını etkiler, sonucu değiştirmez
+        private static final List<String> OUTPUT_ONLY = Arrays.asList("--show-uncovered", "-q", "--quiet");
+
+        private boolean ignoreStaged;
+        private boolean ignoreUnstaged;
+        private boolean ignoreWhitespace;
+        private boolean twoDotNotation;
+
+        static DiffOptions parse(String additionalArgs) throws MojoExecutionException {
+            DiffOptions options = new DiffOptions();
+            if (additionalArgs == null || additionalArgs.trim().isEmpty()) {
+                return options;
+            }
+            String[] args = additionalArgs.trim().split("\\s+");
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if ("--ignore-staged".equals(arg)) {
+                    options.ignoreStaged = true;
+                } else if ("--ignore-unstaged".equals(arg)) {
+                    options.ignoreUnstaged = true;
+                } else if ("--ignore-whitespace".equals(arg)) {
+                    options.ignoreWhitespace = true;
+                } else if (arg.startsWith("--diff-range-notation")) {
+                    String notation = arg.contains("=") ? arg.substring(arg.indexOf('=') + 1)
+                            : (i + 1 < args.length ? args[++i] : "");
+                    if (!"..".equals(notation) && !"...".equals(notation)) {
+                        throw new MojoExecutionException("Invalid --diff-range-notation: " + notation);
+                    }
+                    options.twoDotNotation = "..".equals(notation);
+                } else if (!OUTPUT_ONLY.contains(arg)) {
+                    throw new MojoExecutionException("additionalArgs option " + arg + " is not supported when diff "
+                            + "coverage is evaluated in-process (several compare branches or agentAddress). "
+                            + "Supported: --ignore-staged, --ignore-unstaged, --ignore-whitespace, "
+                            + "--diff-range-notation, " + String.join(", ", OUTPUT_ONLY));
+                }
+            }
+            return options;
+        }
+
+        /**
+         * Diff description in the wording of diff-cover's reports.
+         */
+        String diffName(String branch) {
+            String name = branch + (twoDotNotation ? ".." : "...") + "HEAD";
+            if (!ignoreStaged && !ignoreUnstaged) {
+                return name + ", staged and unstaged changes";
+            } else if (!ignoreStaged) {
+                return name + " and staged changes";
+            } else if (!ignoreUnstaged) {
+                return name + " and unstaged changes";
+            }
+            return name;
+        }
+    }
+
+    /**
+     * A branch to compare against together with its coverage threshold.
+     */
+    private static final class CompareTarget {
+        private final String branch;
+        private final int failUnder;
+
+        CompareTarget(String branch, int failUnder) {
+            this.branch = branch;
+            this.failUnder = failUnder;
+        }
+    }
+
+    /**
+     * Reads the merged diff-cover output, logging it live in verbose mode and
+     * recording when the first line arrived. Otherwise only a bounded tail is
+     * kept for diagnostics, since the result itself comes from the JSON report.
+     */
+    private final class OutputPump extends Thread {
+        static final int TAIL_LINES = 200;
+
+        private final InputStream in;
+        private final Deque<String> tail = new ArrayDeque<>();
+        private volatile Long firstOutputNanos;
+
+        OutputPump(InputStream in) {
+            super("diff-cover-output");
+            setDaemon(true);
+            this.in = in;
+        }
+
+        @Override
+        public void run() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (firstOutputNanos == null) {
+                        firstOutputNanos = System.nanoTime();
+                    }
+                    if (verbose) {
+                        getLog().info(line);
+                    } else {
+                        // Sadece son satırlar tutulur; sonuç JSON'dan okunur
+                        if (tail.size() == TAIL_LINES) {
+                            tail.removeFirst();
+                        }
+                        tail.addLast(line);
+                    }
+                }
+            } catch (IOException e) {
+                getLog().debug("Stopped reading diff-cover output: " + e.getMessage());
+            }
+        }
+
+        /**
+         * @return nanoTime of the first output line, or {@code null} if there was none
+         */
+        Long getFirstOutputNanos() {
+            return firstOutputNanos;
+        }
+
+        String getOutput() {
+            return String.join(System.lineSeparator(), tail).trim();
+        }
+    }
+}
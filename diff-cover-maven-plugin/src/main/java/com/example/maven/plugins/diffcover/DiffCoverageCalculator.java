@@ -0,0 +1,100 @@
+package com.example.maven.plugins.diffcover;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Intersects changed lines with a shared coverage index.
+ *
+ * The index is parsed once and can be reused for any number of diffs, so
+ * evaluating an additional diff only costs the diff itself.
+ */
+public class DiffCoverageCalculator {
+
+    private final CoverageIndex index;
+    private final PathPatternFilter filter;
+
+    public DiffCoverageCalculator(CoverageIndex index, PathPatternFilter filter) {
+        this.index = index;
+        this.filter = filter;
+    }
+
+    public DiffCoverageResult calculate(String diffName, Map<String, ? extends Collection<Integer>> changedLines) {
+        DiffCoverageResult result = new DiffCoverageResult(diffName);
+
+        for (Map.Entry<String, ? extends Collection<Integer>> entry : changedLines.entrySet()) {
+            String path = entry.getKey();
+            if (!filter.accepts(path)) {
+                continue;
+            }
+            FileCoverage coverage = index.find(path);
+            if (coverage == null) {
+                continue;
+            }
+
+            BitSet covered = new BitSet();
+            BitSet violations = new BitSet();
+            for (Integer line : entry.getValue()) {
+                if (coverage.isCovered(line)) {
+                    covered.set(line);
+                } else if (coverage.isInstrumented(line)) {
+                    violations.set(line);
+                }
+            }
+
+            if (!covered.isEmpty() || !violations.isEmpty()) {
+                result.addFile(new DiffCoverageResult.FileResult(path, covered, violations));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Restricts the index to the changed lines, keyed by repository-relative path.
+     * The result is small enough to ship between CI nodes and can be merged with
+     * other partial results before {@link #summarize(String)}.
+     */
+    public CoverageIndex changedLineCoverage(Map<String, ? extends Collection<Integer>> changedLines) {
+        CoverageIndex changed = new CoverageIndex();
+
+        for (Map.Entry<String, ? extends Collection<Integer>> entry : changedLines.entrySet()) {
+            String path = entry.getKey();
+            if (!filter.accepts(path)) {
+                continue;
+            }
+            FileCoverage coverage = index.find(path);
+            if (coverage == null) {
+                continue;
+            }
+
+            FileCoverage restricted = new FileCoverage(path);
+            for (Integer line : entry.getValue()) {
+                if (coverage.isInstrumented(line)) {
+                    restricted.addLine(line, coverage.isCovered(line));
+                }
+            }
+            if (restricted.getLineCount() > 0) {
+                changed.add(restricted);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Builds the result from an index that already contains only changed lines,
+     * such as the merge of several {@link #changedLineCoverage(Map)} results.
+     */
+    public DiffCoverageResult summarize(String diffName) {
+        DiffCoverageResult result = new DiffCoverageResult(diffName);
+
+        for (FileCoverage coverage : index.getFiles()) {
+            if (!filter.accepts(coverage.getPath())) {
+                continue;
+            }
+            result.addFile(new DiffCoverageResult.FileResult(coverage.getPath(),
+                    (BitSet) coverage.getCoveredLines().clone(), (BitSet) coverage.getMissedLines().clone()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes a {@link DiffCoverageResult} in the layout of diff-cover's {@code --json-report},
+ * so tools consuming diff-cover's JSON can read the plugin's own reports as well.
+ */
+public class DiffCoverageJsonWriter {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    public void write(DiffCoverageResult result, File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        try (JsonGenerator json = factory.createGenerator(file, JsonEncoding.UTF8)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartObject();
+            json.writeStringField("report_name", "XML");
+            writeFields(json, result);
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the diff name, per-file stats and totals of a result into the current object.
+     */
+    void writeFields(JsonGenerator json, DiffCoverageResult result) throws IOException {
+        json.writeStringField("diff_name", result.getDiffName());
+
+        json.writeObjectFieldStart("src_stats");
+        for (DiffCoverageResult.FileResult fileResult : result.getFiles()) {
+            json.writeObjectFieldStart(fileResult.getPath());
+            json.writeNumberField("percent_covered", fileResult.getPercentCovered());
+            writeLines(json, "violation_lines", fileResult.getViolationLines());
+            writeLines(json, "covered_lines", fileResult.getCoveredLines());
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+
+        json.writeNumberField("total_num_lines", result.getTotalLines());
+        json.writeNumberField("total_num_violations", result.getTotalViolations());
+        json.writeNumberField("total_percent_covered", result.getTotalPercentCovered());
+    }
+
+    private static void writeLines(JsonGenerator json, String field, Iterable<Integer> lines) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (Integer line : lines) {
+            json.writeNumber(line);
+        }
+        json.writeEndArray();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.maven.plugins.diffcover;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Coverage of the changed lines of one diff, per file and in total.
+ *
+ * Line numbers are kept as bitmaps, so results with tens of thousands of
+ * violation lines stay small in memory.
+ */
+public class DiffCoverageResult {
+
+    private final String diffName;
+    private final Map<String, FileResult> files = new TreeMap<>();
+
+    public DiffCoverageResult(String diffName) {
+        this.diffName = diffName;
+    }
+
+    public String getDiffName() {
+        return diffName;
+    }
+
+    public void addFile(FileResult file) {
+        files.put(file.getPath(), file);
+    }
+
+    public Collection<FileResult> getFiles() {
+        return Collections.unmodifiableCollection(files.values());
+    }
+
+    public int getTotalLines() {
+        int total = 0;
+        for (FileResult file : files.values()) {
+            total += file.getLineCount();
+        }
+        return total;
+    }
+
+    public int getTotalViolations() {
+        int total = 0;
+        for (FileResult file : files.values()) {
+            total += file.getViolationCount();
+        }
+        return total;
+    }
+
+    /**
+     * Total coverage of the changed lines, truncated to a whole percent like
+     * diff-cover's {@code total_percent_covered}; 100 when no changed line is measured.
+     */
+    public int getTotalPercentCovered() {
+        int total = getTotalLines();
+        if (total == 0) {
+            return 100;
+        }
+        return (int) ((total - getTotalViolations()) * 100L / total);
+    }
+
+    /**
+     * Changed, instrumented lines of a single file.
+     */
+    public static class FileResult {
+
+        private final String path;
+        private final BitSet coveredLines;
+        private final BitSet violationLines;
+
+        public FileResult(String path, BitSet coveredLines, BitSet violationLines) {
+            this.path = path;
+            this.coveredLines = coveredLines;
+            this.violationLines = violationLines;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public List<Integer> getCoveredLines() {
+            return toList(coveredLines);
+        }
+
+        public List<Integer> getViolationLines() {
+            return toList(violationLines);
+        }
+
+        public int getCoveredCount() {
+            return coveredLines.cardinality();
+        }
+
+        public int getViolationCount() {
+            return violationLines.cardinality();
+        }
+
+        public int getLineCount() {
+            return getCoveredCount() + getViolationCount();
+        }
+
+        public double getPercentCovered() {
+            int total = getLineCount();
+            return total == 0 ? 100.0 : getCoveredCount() * 100.0 / total;
+        }
+
+        private static List<Integer> toList(BitSet lines) {
+            List<Integer> list = new ArrayList<>(lines.cardinality());
+            for (int line = lines.nextSetBit(0); line >= 0; line = lines.nextSetBit(line + 1)) {
+                list.add(line);
+            }
+            return list;
+        }
+    }
+}
@@ -4,8 +4,15 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
@@ -21,15 +28,26 @@ import org.apache.maven.plugin.logging.Log;
 public class EmbeddedPythonManager {
     
     private final Log log;
+    private final ProcessSupervisor supervisor;
     private final File workDir;
     private final String osName;
     private final String osArch;
     
     private static final String PYTHON_VERSION = "3.11.6";
     private static final String DIFF_COVER_VERSION = "7.7.0";
+    private static final String BYTECODE_MARKER = ".bytecode-compiled";
+    private static final String INSTALL_MARKER = ".diff-cover-installed";
+
+    /**
+     * Interpreter options for every launch of the embedded Python: isolated mode (-I)
+     * ignores PYTHON* variables and the user site-packages and keeps the working
+     * directory off sys.path, so only the bundled runtime is scanned at startup.
+     */
+    public static final String[] INTERPRETER_OPTIONS = {"-I"};
     
-    public EmbeddedPythonManager(Log log, File baseDir) {
+    public EmbeddedPythonManager(Log log, File baseDir, ProcessSupervisor supervisor) {
         this.log = log;
+        this.supervisor = supervisor;
         this.workDir = new File(baseDir, ".diff-cover-plugin");
         this.osName = System.getProperty("os.name").toLowerCase();
         this.osArch = System.getProperty("os.arch").toLowerCase();
@@ -41,7 +59,9 @@ public class EmbeddedPythonManager {
     }
     
     /**
-     * Embedded Python'u hazırlar ve executable path'ini döner
+     * Embedded Python'u hazırlar ve executable path'ini döner.
+     * Runtime geçici bir dizine açılıp yerine taşınır; diff-cover kurulumu bittiğinde
+     * yazılan marker olmadan dizin hazır sayılmaz.
      */
     public String setupEmbeddedPython() throws MojoExecutionException {
         try {
@@ -51,13 +71,26 @@ public class EmbeddedPythonManager {
             
             // Python executable path
             File pythonDir = new File(workDir, "python-" + platformKey);
+            File installMarker = new File(pythonDir, INSTALL_MARKER);
             File pythonExecutable = findPythonExecutableRecursively(pythonDir);
             
-            // Python already extracted?
-            if (pythonExecutable.exists() && pythonExecutable.canExecute()) {
+            // Python already extracted and diff-cover installed?
+            if (installMarker.exists() && pythonExecutable.exists() && pythonExecutable.canExecute()) {
                 log.info("Embedded Python already available: " + pythonExecutable.getAbsolutePath());
+                // Önceki sürümlerle extract edilmiş ortamlar için bytecode'u bir kez derle
+                compileBytecode(pythonExecutable.getAbsolutePath(), pythonDir);
                 return pythonExecutable.getAbsolutePath();
             }
+            
+            // Kurulumu yarıda kalmış runtime: önce kurulumu tamamlamayı dene
+            if (pythonExecutable.exists() && pythonExecutable.canExecute()) {
+                try {
+                    return finishSetup(pythonExecutable, pythonDir);
+                } catch (MojoExecutionException e) {
+                    log.warn("Embedded Python in " + pythonDir.getAbsolutePath() + " is incomplete, extracting again: "
+                            + e.getMessage());
+                }
+            }
 
             // Clean up existing directory and extract again
             if (pythonDir.exists()) {
@@ -85,17 +118,28 @@ public class EmbeddedPythonManager {
                 }
             }
             
-            // Install diff-cover
-            installDiffCover(pythonExecutable.getAbsolutePath());
-            
-            log.info("Embedded Python ready: " + pythonExecutable.getAbsolutePath());
-            return pythonExecutable.getAbsolutePath();
+            return finishSetup(pythonExecutable, pythonDir);
             
         } catch (Exception e) {
             throw new MojoExecutionException("Failed to setup embedded Python", e);
         }
     }
     
+    /**
+     * Installs diff-cover, marks the runtime as ready and precompiles its bytecode.
+     */
+    private String finishSetup(File pythonExecutable, File pythonDir) throws MojoExecutionException, IOException {
+        // Install diff-cover
+        installDiffCover(pythonExecutable.getAbsolutePath());
+        FileUtils.touch(new File(pythonDir, INSTALL_MARKER));
+        
+        // diff-cover ve bağımlılıkları için .pyc dosyalarını önceden üret
+        compileBytecode(pythonExecutable.getAbsolutePath(), pythonDir);
+        
+        log.info("Embedded Python ready: " + pythonExecutable.getAbsolutePath());
+        return pythonExecutable.getAbsolutePath();
+    }
+    
     private String detectPlatform() throws MojoExecutionException {
         boolean isLinux = osName.contains("linux");
         boolean isMacOS = osName.contains("mac") || osName.contains("darwin");
@@ -123,19 +167,28 @@ public class EmbeddedPythonManager {
         
         log.info("Extracting embedded Python " + PYTHON_VERSION + " for " + platformKey + "...");
         
-        // JAR içinden Python arşivini oku
+        // Geçici dizine aç, tamamlanınca tek adımda yerine taşı: yarım kalan extraction hazır görünmez
+        File tempDir = new File(workDir, pythonDir.getName() + ".tmp-" + System.nanoTime());
         try (InputStream resourceStream = getClass().getResourceAsStream(resourcePath)) {
             if (resourceStream == null) {
                 throw new MojoExecutionException("Python binary not found in plugin JAR: " + resourcePath);
             }
             
             // Arşivi extract et
-            extractTarGzStream(resourceStream, pythonDir);
+            extractTarGzStream(resourceStream, tempDir);
+            try {
+                Files.move(tempDir.toPath(), pythonDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // Paralel bir build aynı runtime'ı önce yerleştirdi
+                log.debug("Python directory was created concurrently: " + pythonDir.getAbsolutePath());
+            }
             
             log.info("Python extracted to: " + pythonDir.getAbsolutePath());
             
         } catch (IOException e) {
             throw new MojoExecutionException("Failed to extract Python from JAR", e);
+        } finally {
+            FileUtils.deleteQuietly(tempDir);
         }
     }
     
@@ -260,14 +313,13 @@ public class EmbeddedPythonManager {
      * diff-cover'ı embedded Python ortamına yükler
      */
     private void installDiffCover(String pythonExecutable) throws MojoExecutionException {
-        try {
-            // diff-cover zaten yüklü mü kontrol et
-            ProcessBuilder checkPb = new ProcessBuilder(pythonExecutable, "-m", "diff_cover", "--version");
-            Process checkProcess = checkPb.start();
+        // diff-cover zaten yüklü mü kontrol et
+        ProcessBuilder checkPb = new ProcessBuilder(pythonCommand(pythonExecutable, "-m", "diff_cover", "--version"));
+        try (SupervisedProcess checkProcess = supervisor.start("diff-cover --version", checkPb)) {
+            String version = IOUtils.toString(checkProcess.getProcess().getInputStream(), "UTF-8");
             int exitCode = checkProcess.waitFor();
             
             if (exitCode == 0) {
-                String version = IOUtils.toString(checkProcess.getInputStream(), "UTF-8");
                 log.info("diff-cover already installed in embedded Python: " + version.trim());
                 return;
             }
@@ -279,31 +331,92 @@ public class EmbeddedPythonManager {
         
         try {
             // pip'i güncelle
-            ProcessBuilder pipUpgrade = new ProcessBuilder(pythonExecutable, "-m", "pip", "install", "--upgrade", "pip");
+            ProcessBuilder pipUpgrade = new ProcessBuilder(pythonCommand(pythonExecutable, "-m", "pip", "install", "--upgrade", "pip"));
             pipUpgrade.redirectErrorStream(true);
-            Process upgradeProcess = pipUpgrade.start();
-            upgradeProcess.waitFor();
+            try (SupervisedProcess upgradeProcess = supervisor.start("pip install --upgrade pip", pipUpgrade)) {
+                IOUtils.toString(upgradeProcess.getProcess().getInputStream(), "UTF-8");
+                upgradeProcess.waitFor();
+                log.info(upgradeProcess.getUsage());
+            }
             
             // diff-cover'ı yükle
-            ProcessBuilder installPb = new ProcessBuilder(pythonExecutable, "-m", "pip", "install", 
-                                                         "diff-cover==" + DIFF_COVER_VERSION);
+            ProcessBuilder installPb = new ProcessBuilder(pythonCommand(pythonExecutable, "-m", "pip", "install", 
+                                                         "diff-cover==" + DIFF_COVER_VERSION));
             installPb.redirectErrorStream(true);
             installPb.inheritIO(); // Output'u göster
             
-            Process installProcess = installPb.start();
-            int installExitCode = installProcess.waitFor();
-            
-            if (installExitCode != 0) {
-                throw new MojoExecutionException("Failed to install diff-cover in embedded Python. Exit code: " + installExitCode);
+            try (SupervisedProcess installProcess = supervisor.start("pip install diff-cover", installPb)) {
+                int installExitCode = installProcess.waitFor();
+                log.info(installProcess.getUsage());
+                
+                if (installExitCode != 0) {
+                    throw new MojoExecutionException("Failed to install diff-cover in embedded Python. Exit code: " + installExitCode);
+                }
             }
             
             log.info("diff-cover installed successfully in embedded Python environment");
             
-        } catch (IOException | InterruptedException e) {
+        } catch (IOException e) {
             throw new MojoExecutionException("Failed to install diff-cover", e);
         }
     }
     
+    /**
+     * site-packages altındaki modülleri bir kez .pyc'ye derler; böylece her diff-cover
+     * çalıştırmasında kaynak derleme maliyeti ödenmez. Başarısızlık kritik değildir.
+     */
+    private void compileBytecode(String pythonExecutable, File pythonDir) {
+        File marker = new File(pythonDir, BYTECODE_MARKER);
+        if (marker.exists()) {
+            return;
+        }
+        
+        try {
+            ProcessBuilder pathsPb = new ProcessBuilder(pythonCommand(pythonExecutable, "-c",
+                    "import sysconfig; print(sysconfig.get_paths()['purelib'])"));
+            String sitePackages;
+            try (SupervisedProcess pathsProcess = supervisor.start("python sysconfig", pathsPb)) {
+                sitePackages = IOUtils.toString(pathsProcess.getProcess().getInputStream(), "UTF-8").trim();
+                if (pathsProcess.waitFor() != 0 || sitePackages.isEmpty()) {
+                    log.debug("Could not determine site-packages, skipping bytecode compilation");
+                    return;
+                }
+            }
+            
+            log.info("Precompiling Python bytecode in " + sitePackages + "...");
+            long start = System.nanoTime();
+            ProcessBuilder compilePb = new ProcessBuilder(pythonCommand(pythonExecutable,
+                    "-m", "compileall", "-q", "-j", "0", sitePackages));
+            compilePb.redirectErrorStream(true);
+            try (SupervisedProcess compileProcess = supervisor.start("compileall", compilePb)) {
+                String output = IOUtils.toString(compileProcess.getProcess().getInputStream(), "UTF-8");
+                int exitCode = compileProcess.waitFor();
+                
+                if (exitCode != 0) {
+                    log.warn("Bytecode compilation finished with exit code " + exitCode + ": " + output.trim());
+                    return;
+                }
+                log.debug(compileProcess.getUsage());
+            }
+            FileUtils.touch(marker);
+            log.info("Bytecode compiled in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            
+        } catch (IOException | MojoExecutionException e) {
+            log.warn("Bytecode compilation failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Embedded Python için komut satırı: executable + isolated mode seçenekleri + argümanlar
+     */
+    public static List<String> pythonCommand(String pythonExecutable, String... args) {
+        List<String> command = new ArrayList<>();
+        command.add(pythonExecutable);
+        command.addAll(Arrays.asList(INTERPRETER_OPTIONS));
+        command.addAll(Arrays.asList(args));
+        return command;
+    }
+    
     /**
      * Embedded Python binary'lerinin boyutunu hesaplar
      */
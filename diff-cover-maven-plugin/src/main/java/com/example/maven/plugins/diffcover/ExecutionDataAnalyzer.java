@@ -0,0 +1,95 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.plugin.logging.Log;
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.data.ExecutionDataStore;
+
+/**
+ * Turns raw JaCoCo execution data into line coverage for the changed files only.
+ *
+ * Instead of analyzing every class of the build (what {@code jacoco:report} does), only
+ * the class files in the packages of the changed sources are analyzed, so the cost is
+ * proportional to the diff rather than to the application.
+ */
+public class ExecutionDataAnalyzer {
+
+    private final Log log;
+    private final ExecutionDataStore executionData;
+    private final SourceRootIndex sourceRoots;
+
+    public ExecutionDataAnalyzer(Log log, ExecutionDataStore executionData, SourceRootIndex sourceRoots) {
+        this.log = log;
+        this.executionData = executionData;
+        this.sourceRoots = sourceRoots;
+    }
+
+    /**
+     * @param classDirectories class output directory -> base directory of the owning module
+     * @param changedFiles     repository-relative paths of the changed files
+     */
+    public CoverageIndex analyze(Map<File, File> classDirectories, Collection<String> changedFiles) throws IOException {
+        Set<String> sourcePaths = new LinkedHashSet<>();
+        Set<String> packageDirs = new LinkedHashSet<>();
+        for (String changedFile : changedFiles) {
+            String packagePath = sourceRoots.toPackagePath(changedFile);
+            if (packagePath != null) {
+                sourcePaths.add(packagePath);
+                int slash = packagePath.lastIndexOf('/');
+                packageDirs.add(slash < 0 ? "" : packagePath.substring(0, slash));
+            }
+        }
+
+        CoverageIndex index = new CoverageIndex();
+        int analyzedClasses = 0;
+        for (Map.Entry<File, File> classDirectory : classDirectories.entrySet()) {
+            // Modül başına ayrı builder: farklı modüllerde aynı isimli sınıflar çakışmasın
+            CoverageBuilder builder = new CoverageBuilder();
+            Analyzer analyzer = new Analyzer(executionData, builder);
+            for (String packageDir : packageDirs) {
+                File[] classFiles = new File(classDirectory.getKey(), packageDir)
+                        .listFiles(file -> file.isFile() && file.getName().endsWith(".class"));
+                if (classFiles == null) {
+                    continue;
+                }
+                for (File classFile : classFiles) {
+                    analyzedClasses += analyzer.analyzeAll(classFile);
+                }
+            }
+            if (builder.getNoMatchClasses().size() > 0) {
+                log.warn(builder.getNoMatchClasses().size() + " classes in " + classDirectory.getKey()
+                        + " do not match the execution data; the running application was built from different sources");
+            }
+
+            CoveragePathResolver paths = new CoveragePathResolver(sourceRoots, classDirectory.getValue());
+            for (ISourceFileCoverage sourceFile : builder.getSourceFiles()) {
+                String packagePath = sourceFile.getPackageName().isEmpty() ? sourceFile.getName()
+                        : sourceFile.getPackageName() + "/" + sourceFile.getName();
+                if (sourcePaths.contains(packagePath)) {
+                    addLines(sourceFile, index.getOrCreate(paths.resolvePackagePath(packagePath)));
+                }
+            }
+        }
+        log.debug("Analyzed " + analyzedClasses + " classes in " + packageDirs.size() + " changed packages");
+        return index;
+    }
+
+    private static void addLines(ISourceFileCoverage sourceFile, FileCoverage coverage) {
+        for (int line = sourceFile.getFirstLine(); line <= sourceFile.getLastLine() && line > 0; line++) {
+            int status = sourceFile.getLine(line).getStatus();
+            if (status != ICounter.EMPTY) {
+                // XML raporundaki ci > 0 ile aynı: kısmen çalışan satır covered sayılır
+                coverage.addLine(line, status != ICounter.NOT_COVERED);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.maven.plugins.diffcover;
+
+import java.util.BitSet;
+
+/**
+ * Line coverage of a single source file.
+ *
+ * A line counts as covered as soon as one report marks it covered, so merging
+ * several reports for the same file never turns a covered line back into a miss.
+ */
+public class FileCoverage {
+
+    private final String path;
+    private final BitSet coveredLines;
+    private final BitSet missedLines;
+
+    public FileCoverage(String path) {
+        this(path, new BitSet(), new BitSet());
+    }
+
+    FileCoverage(String path, BitSet coveredLines, BitSet missedLines) {
+        this.path = path;
+        this.coveredLines = coveredLines;
+        this.missedLines = missedLines;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void addLine(int lineNumber, boolean covered) {
+        if (covered) {
+            coveredLines.set(lineNumber);
+            missedLines.clear(lineNumber);
+        } else if (!coveredLines.get(lineNumber)) {
+            missedLines.set(lineNumber);
+        }
+    }
+
+    public void merge(FileCoverage other) {
+        coveredLines.or(other.coveredLines);
+        missedLines.or(other.missedLines);
+        missedLines.andNot(coveredLines);
+    }
+
+    public boolean isInstrumented(int lineNumber) {
+        return coveredLines.get(lineNumber) || missedLines.get(lineNumber);
+    }
+
+    public boolean isCovered(int lineNumber) {
+        return coveredLines.get(lineNumber);
+    }
+
+    public int getCoveredCount() {
+        return coveredLines.cardinality();
+    }
+
+    public int getMissedCount() {
+        return missedLines.cardinality();
+    }
+
+    public int getLineCount() {
+        return getCoveredCount() + getMissedCount();
+    }
+
+    /**
+     * Percentage of instrumented lines that are covered; 100 for files without
+     * instrumented lines, the same convention diff-cover uses.
+     */
+    public double getCoveragePercent() {
+        int total = getLineCount();
+        return total == 0 ? 100.0 : getCoveredCount() * 100.0 / total;
+    }
+
+    BitSet getCoveredLines() {
+        return coveredLines;
+    }
+
+    BitSet getMissedLines() {
+        return missedLines;
+    }
+}
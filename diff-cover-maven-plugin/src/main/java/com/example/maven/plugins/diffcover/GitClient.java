@@ -0,0 +1,367 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Minimal git command line wrapper used for merge-base and changed-line resolution.
+ */
+public class GitClient {
+
+    private static final String UNCOMMITTED = "0000000000000000000000000000000000000000";
+
+    private final Log log;
+    private final File workDir;
+    private final ProcessSupervisor supervisor;
+
+    public GitClient(Log log, File workDir, ProcessSupervisor supervisor) {
+        this.log = log;
+        this.workDir = workDir;
+        this.supervisor = supervisor;
+    }
+
+    public String revParse(String revision) throws MojoExecutionException {
+        return run("rev-parse", "--verify", revision + "^{commit}").trim();
+    }
+
+    public String mergeBase(String first, String second) throws MojoExecutionException {
+        return run("merge-base", first, second).trim();
+    }
+
+    public File getTopLevel() throws MojoExecutionException {
+        return new File(run("rev-parse", "--show-toplevel").trim());
+    }
+
+    /**
+     * Lines added or modified in the working tree relative to the given revision,
+     * keyed by repository-relative path. This matches diff-cover's default of
+     * including committed, staged and unstaged changes.
+     */
+    public Map<String, SortedSet<Integer>> changedLines(String base) throws MojoExecutionException {
+        return diff(Collections.singletonList(base), Collections.<String>emptyList());
+    }
+
+    /**
+     * Same as {@link #changedLines(String)} with diff-cover's options: committed changes
+     * relative to the base plus, optionally, staged and unstaged changes, unioned per file
+     * as diff-cover does.
+     *
+     * @param ignoreWhitespace ignore whitespace-only and blank-line changes
+     */
+    public Map<String, SortedSet<Integer>> changedLines(String base, boolean includeStaged, boolean includeUnstaged,
+                                                        boolean ignoreWhitespace) throws MojoExecutionException {
+        List<String> options = ignoreWhitespace
+                ? Arrays.asList("--ignore-all-space", "--ignore-blank-lines") : Collections.<String>emptyList();
+        if (includeStaged && includeUnstaged) {
+            // Çalışma ağacı ile base arasındaki tek diff üçünü birden kapsar
+            return diff(concat(options, base), Collections.<String>emptyList());
+        }
+        Map<String, SortedSet<Integer>> changes = diff(concat(options, base, "HEAD"), Collections.<String>emptyList());
+        if (includeStaged) {
+            addAll(changes, diff(concat(options, "--cached"), Collections.<String>emptyList()));
+        }
+        if (includeUnstaged) {
+            addAll(changes, diff(options, Collections.<String>emptyList()));
+        }
+        return changes;
+    }
+
+    private static List<String> concat(List<String> options, String... args) {
+        List<String> arguments = new ArrayList<>(options);
+        arguments.addAll(Arrays.asList(args));
+        return arguments;
+    }
+
+    private static void addAll(Map<String, SortedSet<Integer>> changes, Map<String, SortedSet<Integer>> more) {
+        for (Map.Entry<String, SortedSet<Integer>> entry : more.entrySet()) {
+            changes.computeIfAbsent(entry.getKey(), key -> new TreeSet<>()).addAll(entry.getValue());
+        }
+    }
+
+    /**
+     * Same as {@link #changedLines(String)} but limited to the given repository-relative paths.
+     */
+    public Map<String, SortedSet<Integer>> changedLines(String base, Collection<String> paths)
+            throws MojoExecutionException {
+        return diff(Collections.singletonList(base), paths);
+    }
+
+    /**
+     * Files that differ between the given revision and the working tree, excluding deleted files.
+     */
+    public List<String> changedFiles(String base) throws MojoExecutionException {
+        List<String> files = new ArrayList<>();
+        for (String line : run("diff", "--name-only", "--no-renames", "--diff-filter=d", base, "--").split("\n")) {
+            if (!line.isEmpty()) {
+                files.add(unquotePath(line));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Commits of the given revision range, oldest first.
+     */
+    public List<Commit> log(String range) throws MojoExecutionException {
+        List<Commit> commits = new ArrayList<>();
+        String output = run("log", "--reverse", "--date=short", "--format=%H%x1f%an%x1f%ad%x1f%s", range, "--");
+        for (String line : output.split("\n")) {
+            String[] fields = line.split("\u001f", 4);
+            if (fields.length == 4) {
+                commits.add(new Commit(fields[0], fields[1], fields[2], fields[3]));
+            }
+        }
+        return commits;
+    }
+
+    /**
+     * Attributes the lines of a working tree file to the commits that last changed them,
+     * stopping at the given revision. Lines older than it and uncommitted lines are left out,
+     * so the result is keyed by commit with line numbers of the working tree.
+     */
+    public Map<String, SortedSet<Integer>> blame(String since, String path) throws MojoExecutionException {
+        List<String> command = Arrays.asList("git", "blame", "--incremental", "^" + since, "--", path);
+        try (SupervisedProcess process = start(command);
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(process.getProcess().getInputStream(), StandardCharsets.UTF_8))) {
+            Map<String, SortedSet<Integer>> lines = parseIncrementalBlame(reader);
+            waitFor(process, command);
+            return lines;
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to read git blame output", e);
+        }
+    }
+
+    static Map<String, SortedSet<Integer>> parseIncrementalBlame(BufferedReader reader) throws IOException {
+        Map<String, SortedSet<Integer>> lines = new HashMap<>();
+        Set<String> boundaries = new HashSet<>();
+        String commit = null;
+        int finalLine = 0;
+        int count = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (commit == null) {
+                // <sha> <source line> <final line> <line count>
+                String[] fields = line.split(" ");
+                commit = fields[0];
+                finalLine = Integer.parseInt(fields[2]);
+                count = Integer.parseInt(fields[3]);
+            } else if ("boundary".equals(line)) {
+                // Commit başlığı yalnızca ilk görüldüğünde yazılır
+                boundaries.add(commit);
+            } else if (line.startsWith("filename ")) {
+                if (!boundaries.contains(commit) && !UNCOMMITTED.equals(commit)) {
+                    SortedSet<Integer> commitLines = lines.computeIfAbsent(commit, key -> new TreeSet<>());
+                    for (int i = 0; i < count; i++) {
+                        commitLines.add(finalLine + i);
+                    }
+                }
+                commit = null;
+            }
+        }
+        return lines;
+    }
+
+    private Map<String, SortedSet<Integer>> diff(List<String> arguments, Collection<String> paths)
+            throws MojoExecutionException {
+        List<String> command = new ArrayList<>(Arrays.asList(
+                "git", "diff", "--no-color", "--no-ext-diff", "--no-renames",
+                "--src-prefix=a/", "--dst-prefix=b/", "-U0"));
+        command.addAll(arguments);
+        command.add("--");
+        // Pathspec'ler repo köküne göre yorumlansın
+        for (String path : paths) {
+            command.add(":(top,literal)" + path);
+        }
+
+        try (SupervisedProcess process = start(command);
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(process.getProcess().getInputStream(), StandardCharsets.UTF_8))) {
+            Map<String, SortedSet<Integer>> changes = parseUnifiedDiff(reader);
+            waitFor(process, command);
+            return changes;
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to read git diff output", e);
+        }
+    }
+
+    static Map<String, SortedSet<Integer>> parseUnifiedDiff(BufferedReader reader) throws IOException {
+        Map<String, SortedSet<Integer>> changes = new TreeMap<>();
+        SortedSet<Integer> current = null;
+        // Dosya başlığı yalnızca "diff --git" ile ilk hunk arasında okunur; hunk içindeki
+        // "+++ ..." satırı "++ ..." ile başlayan eklenmiş bir kaynak satırıdır
+        boolean inHeader = false;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("diff --git ")) {
+                inHeader = true;
+                current = null;
+            } else if (inHeader && line.startsWith("+++ ")) {
+                String target = parseHeaderPath(line.substring(4));
+                if (target.startsWith("b/")) {
+                    current = new TreeSet<>();
+                    changes.put(target.substring(2), current);
+                } else {
+                    // Silinen dosya (+++ /dev/null)
+                    current = null;
+                }
+            } else if (line.startsWith("@@ ")) {
+                inHeader = false;
+                if (current != null) {
+                    // @@ -a,b +c,d @@
+                    int plus = line.indexOf('+', 3);
+                    int end = line.indexOf(' ', plus);
+                    String range = line.substring(plus + 1, end);
+                    int comma = range.indexOf(',');
+                    int start = Integer.parseInt(comma < 0 ? range : range.substring(0, comma));
+                    int count = comma < 0 ? 1 : Integer.parseInt(range.substring(comma + 1));
+                    for (int i = 0; i < count; i++) {
+                        current.add(start + i);
+                    }
+                }
+            }
+        }
+
+        changes.values().removeIf(SortedSet::isEmpty);
+        return changes;
+    }
+
+    /**
+     * Path of a {@code ---}/{@code +++} header: git appends a tab to paths containing
+     * spaces and C-quotes paths with special characters.
+     */
+    static String parseHeaderPath(String value) {
+        return unquotePath(value.endsWith("\t") ? value.substring(0, value.length() - 1) : value);
+    }
+
+    /**
+     * Undoes git's C-style quoting of a path; unquoted paths are returned as-is.
+     */
+    static String unquotePath(String path) {
+        if (path.length() < 2 || path.charAt(0) != '"' || path.charAt(path.length() - 1) != '"') {
+            return path;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 1; i < path.length() - 1; i++) {
+            char c = path.charAt(i);
+            if (c != '\\' || i + 1 >= path.length() - 1) {
+                byte[] encoded = String.valueOf(c).getBytes(StandardCharsets.UTF_8);
+                bytes.write(encoded, 0, encoded.length);
+                continue;
+            }
+            char escaped = path.charAt(++i);
+            switch (escaped) {
+                case 'a': bytes.write(7); break;
+                case 'b': bytes.write('\b'); break;
+                case 't': bytes.write('\t'); break;
+                case 'n': bytes.write('\n'); break;
+                case 'v': bytes.write(11); break;
+                case 'f': bytes.write('\f'); break;
+                case 'r': bytes.write('\r'); break;
+                default:
+                    if (escaped >= '0' && escaped <= '7' && i + 2 < path.length() - 1) {
+                        // \ooo: UTF-8 byte'ı sekizlik olarak
+                        bytes.write(Integer.parseInt(path.substring(i, i + 3), 8));
+                        i += 2;
+                    } else {
+                        bytes.write(escaped);
+                    }
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private String run(String... args) throws MojoExecutionException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+
+        try (SupervisedProcess process = start(command)) {
+            String output = IOUtils.toString(process.getProcess().getInputStream(), StandardCharsets.UTF_8);
+            waitFor(process, command);
+            return output;
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to read output of: " + String.join(" ", command), e);
+        }
+    }
+
+    private SupervisedProcess start(List<String> command) throws MojoExecutionException {
+        if (log.isDebugEnabled()) {
+            log.debug("Running: " + String.join(" ", command));
+        }
+        try {
+            // Non-ASCII yollar sekizlik kaçışla değil olduğu gibi yazılsın
+            List<String> gitCommand = new ArrayList<>(command);
+            gitCommand.addAll(1, Arrays.asList("-c", "core.quotepath=off"));
+            ProcessBuilder pb = new ProcessBuilder(gitCommand);
+            pb.directory(workDir);
+            return supervisor.start(String.join(" ", command.subList(0, 2)), pb);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to start git. Is git installed and on the PATH?", e);
+        }
+    }
+
+    private void waitFor(SupervisedProcess process, List<String> command) throws MojoExecutionException, IOException {
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            String error = IOUtils.toString(process.getProcess().getErrorStream(), StandardCharsets.UTF_8);
+            throw new MojoExecutionException(String.join(" ", command) + " failed with exit code "
+                    + exitCode + ": " + error.trim());
+        }
+    }
+
+    /**
+     * A commit as listed by {@link #log(String)}.
+     */
+    public static final class Commit {
+        private final String id;
+        private final String author;
+        private final String date;
+        private final String subject;
+
+        Commit(String id, String author, String date, String subject) {
+            this.id = id;
+            this.author = author;
+            this.date = date;
+            this.subject = subject;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getAuthor() {
+            return author;
+        }
+
+        public String getDate() {
+            return date;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+    }
+}
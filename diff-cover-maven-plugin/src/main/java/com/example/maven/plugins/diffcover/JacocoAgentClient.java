@@ -0,0 +1,79 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.SessionInfoStore;
+import org.jacoco.core.runtime.RemoteControlReader;
+import org.jacoco.core.runtime.RemoteControlWriter;
+
+/**
+ * Pulls execution data from a JaCoCo agent running in {@code output=tcpserver} mode,
+ * the same way {@code jacoco:dump} does, but into memory instead of a .exec file.
+ */
+public class JacocoAgentClient {
+
+    private static final int DEFAULT_PORT = 6300;
+
+    private final String host;
+    private final int port;
+    private final int timeoutMillis;
+
+    public JacocoAgentClient(String host, int port, int timeoutMillis) {
+        this.host = host;
+        this.port = port;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Parses an agent address of the form {@code host[:port]}; the port defaults to the
+     * agent's default 6300.
+     */
+    public static JacocoAgentClient forAddress(String address, int timeoutMillis) throws MojoExecutionException {
+        String value = address.trim();
+        int separator = value.lastIndexOf(':');
+        if (separator < 0) {
+            return new JacocoAgentClient(value, DEFAULT_PORT, timeoutMillis);
+        }
+        try {
+            return new JacocoAgentClient(value.substring(0, separator),
+                    Integer.parseInt(value.substring(separator + 1)), timeoutMillis);
+        } catch (NumberFormatException e) {
+            throw new MojoExecutionException("Invalid Jacoco agent address: " + address);
+        }
+    }
+
+    public String getAddress() {
+        return host + ":" + port;
+    }
+
+    /**
+     * Requests a dump from the agent and returns its execution data.
+     *
+     * @param reset whether the agent should reset its probes after the dump
+     */
+    public ExecutionDataStore dump(boolean reset) throws MojoExecutionException {
+        ExecutionDataStore executionData = new ExecutionDataStore();
+        SessionInfoStore sessionInfos = new SessionInfoStore();
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+
+            RemoteControlWriter writer = new RemoteControlWriter(socket.getOutputStream());
+            RemoteControlReader reader = new RemoteControlReader(socket.getInputStream());
+            reader.setSessionInfoVisitor(sessionInfos);
+            reader.setExecutionDataVisitor(executionData);
+
+            writer.visitDumpCommand(true, reset);
+            if (!reader.read()) {
+                throw new MojoExecutionException("Jacoco agent at " + getAddress() + " closed the connection before the dump completed");
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to dump execution data from Jacoco agent at " + getAddress(), e);
+        }
+        return executionData;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming (StAX) reader for JaCoCo XML reports.
+ *
+ * Only {@code package/sourcefile/line} elements are read, so memory stays
+ * proportional to the number of source lines rather than the report size.
+ * Package-relative file names are resolved to repository paths through the
+ * {@link CoveragePathResolver}.
+ */
+public class JacocoCoverageReader implements CoverageReader {
+
+    private final XMLInputFactory factory;
+
+    public JacocoCoverageReader() {
+        factory = XMLInputFactory.newInstance();
+        // JaCoCo raporları report.dtd'ye referans verir; DTD'yi yükleme
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    @Override
+    public String getName() {
+        return "jacoco";
+    }
+
+    @Override
+    public boolean supports(String head) {
+        return head.contains("-//JACOCO//DTD") || (head.contains("<report") && head.contains("<sessioninfo"));
+    }
+
+    @Override
+    public void read(File report, CoverageIndex index, CoveragePathResolver paths) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(report))) {
+            read(in, index, paths);
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid Jacoco report: " + report.getAbsolutePath(), e);
+        }
+    }
+
+    private void read(InputStream in, CoverageIndex index, CoveragePathResolver paths)
+            throws XMLStreamException, IOException {
+        XMLStreamReader reader = factory.createXMLStreamReader(in);
+        try {
+            String packageName = null;
+            FileCoverage current = null;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("package".equals(name)) {
+                        packageName = reader.getAttributeValue(null, "name");
+                    } else if ("sourcefile".equals(name)) {
+                        String fileName = reader.getAttributeValue(null, "name");
+                        String path = packageName == null || packageName.isEmpty()
+                                ? fileName : packageName + "/" + fileName;
+                        current = index.getOrCreate(paths.resolvePackagePath(path));
+                    } else if ("line".equals(name) && current != null) {
+                        int lineNumber = Integer.parseInt(reader.getAttributeValue(null, "nr"));
+                        int coveredInstructions = Integer.parseInt(reader.getAttributeValue(null, "ci"));
+                        current.addLine(lineNumber, coveredInstructions > 0);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("sourcefile".equals(name)) {
+                        current = null;
+                    } else if ("package".equals(name)) {
+                        packageName = null;
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Line-by-line reader for LCOV tracefiles ({@code lcov.info}), as produced by
+ * istanbul/nyc, c8, Kotlin/JS and lcov/geninfo.
+ *
+ * Only {@code SF:} (source file) and {@code DA:} (line hits) records are used.
+ */
+public class LcovCoverageReader implements CoverageReader {
+
+    @Override
+    public String getName() {
+        return "lcov";
+    }
+
+    @Override
+    public boolean supports(String head) {
+        String trimmed = head.trim();
+        return trimmed.startsWith("TN:") || trimmed.startsWith("SF:");
+    }
+
+    @Override
+    public void read(File report, CoverageIndex index, CoveragePathResolver paths) throws IOException {
+        List<File> baseDirs = Collections.singletonList(report.getAbsoluteFile().getParentFile());
+
+        try (BufferedReader reader = Files.newBufferedReader(report.toPath(), StandardCharsets.UTF_8)) {
+            FileCoverage current = null;
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.startsWith("SF:")) {
+                    current = index.getOrCreate(paths.resolveFile(line.substring(3).trim(), baseDirs));
+                } else if (line.startsWith("DA:") && current != null) {
+                    // DA:<line>,<hits>[,<checksum>]
+                    String[] fields = line.substring(3).split(",");
+                    try {
+                        current.addLine(Integer.parseInt(fields[0].trim()), Long.parseLong(fields[1].trim()) > 0);
+                    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                        throw new IOException("Invalid LCOV record at " + report.getAbsolutePath() + ":" + lineNumber, e);
+                    }
+                } else if ("end_of_record".equals(line.trim())) {
+                    current = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Combines the shard files written by diff-coverage-partial into the final diff
+ * coverage verdict and reports.
+ *
+ * A changed line counts as covered if any shard covered it. All shards must have been
+ * computed for the same merge-base and HEAD commit.
+ */
+@Mojo(name = "diff-coverage-merge", requiresProject = false)
+public class MergeDiffCoverageMojo extends AbstractDiffCoverMojo {
+
+    /**
+     * Directory searched recursively for *.shard files.
+     * Can be overridden with -Ddiff-cover.shardDirectory=shards/
+     */
+    @Parameter(property = "diff-cover.shardDirectory", required = true)
+    private File shardDirectory;
+
+    /**
+     * Report formats to generate: console, json (comma-separated).
+     * Can be overridden with -Ddiff-cover.reportFormats=console,json
+     */
+    @Parameter(property = "diff-cover.reportFormats", defaultValue = "console")
+    private String reportFormats;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Diff-cover execution skipped");
+            return;
+        }
+
+        List<File> shardFiles = findShardFiles();
+        if (shardFiles.isEmpty()) {
+            throw new MojoExecutionException("No shard files found in " + shardDirectory.getAbsolutePath());
+        }
+
+        CoverageIndex merged = new CoverageIndex();
+        CoverageIndexFile first = null;
+        // shard id + modül -> dosya: kopyalanırken üzerine yazılmış ya da iki kez toplanmış shard'ları yakala
+        Map<String, File> seen = new HashMap<>();
+        for (File shardFile : shardFiles) {
+            CoverageIndexFile shard;
+            try {
+                shard = CoverageIndexFile.read(shardFile);
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to read shard file: " + shardFile.getAbsolutePath(), e);
+            }
+
+            if (first == null) {
+                first = shard;
+            } else if (!first.getMetadata("base").equals(shard.getMetadata("base"))
+                    || !first.getMetadata("head").equals(shard.getMetadata("head"))) {
+                throw new MojoExecutionException("Shard " + shardFile.getAbsolutePath() + " was computed for "
+                        + shard.getMetadata("base") + ".." + shard.getMetadata("head") + ", expected "
+                        + first.getMetadata("base") + ".." + first.getMetadata("head"));
+            }
+
+            String key = shard.getMetadata("shard") + " of " + shard.getMetadata("module");
+            File duplicate = seen.put(key, shardFile);
+            if (duplicate != null) {
+                throw new MojoExecutionException("Duplicate shard " + key + ": " + duplicate.getAbsolutePath()
+                        + " and " + shardFile.getAbsolutePath() + ". Give every CI node its own diff-cover.shardId.");
+            }
+
+            getLog().info("Merging shard " + shard.getMetadata("shard") + ": " + shardFile.getAbsolutePath());
+            for (FileCoverage file : shard.getIndex().getFiles()) {
+                merged.add(file);
+            }
+        }
+
+        // Shard'lar zaten filtrelenmiş; burada yeniden filtrelemeye gerek yok
+        DiffCoverageResult result = new DiffCoverageCalculator(merged, new PathPatternFilter(null, null))
+                .summarize(first.getMetadata("diff"));
+        logResult(result);
+
+        if (reportFormats.toLowerCase().contains("json")) {
+            File jsonReport = new File(outputDirectory, "diff-cover-report.json");
+            try {
+                new DiffCoverageJsonWriter().write(result, jsonReport);
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to write JSON report: " + jsonReport.getAbsolutePath(), e);
+            }
+            getLog().info("JSON report generated: " + jsonReport.getAbsolutePath());
+        }
+
+        if (result.getTotalPercentCovered() < failUnder) {
+            String message = String.format("❌ diff-cover failed: Coverage %d%% of %d shards is below %d%% threshold",
+                    result.getTotalPercentCovered(), shardFiles.size(), failUnder);
+            getLog().error(message);
+            throw new MojoFailureException(message);
+        }
+        getLog().info("✅ diff-cover completed successfully - coverage requirements met");
+    }
+
+    private List<File> findShardFiles() throws MojoExecutionException {
+        if (!shardDirectory.isDirectory()) {
+            throw new MojoExecutionException("Shard directory does not exist: " + shardDirectory.getAbsolutePath());
+        }
+        try (Stream<Path> files = Files.walk(shardDirectory.toPath())) {
+            return files.filter(path -> path.toString().endsWith(PartialDiffCoverageMojo.SHARD_EXTENSION))
+                    .sorted()
+                    .map(Path::toFile)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to list shard files in " + shardDirectory.getAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Writes the diff coverage of one CI shard: the covered/missed state of the changed
+ * lines only, as seen by this shard's partial coverage reports.
+ *
+ * Collect the shard files of all nodes and combine them with the diff-coverage-merge
+ * goal; full XML reports never have to leave the node that produced them.
+ */
+@Mojo(name = "diff-coverage-partial", defaultPhase = LifecyclePhase.VERIFY, requiresProject = true)
+public class PartialDiffCoverageMojo extends AbstractDiffCoverMojo {
+
+    static final String SHARD_EXTENSION = ".shard";
+
+    /**
+     * Identifier of this shard, used in the shard file name (e.g. the CI node index).
+     * Must be unique per CI node; the merge goal rejects duplicates.
+     * Can be overridden with -Ddiff-cover.shardId=3
+     */
+    @Parameter(property = "diff-cover.shardId", required = true)
+    private String shardId;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Diff-cover execution skipped");
+            return;
+        }
+        requireSingleBranch();
+
+        List<File> reportFiles = findCoverageReports();
+        if (reportFiles.isEmpty()) {
+            warnNoCoverageReports();
+            return;
+        }
+
+        GitClient git = createGitClient();
+        String mergeBase = git.mergeBase(branch, "HEAD");
+        String head = git.revParse("HEAD");
+        Map<String, SortedSet<Integer>> changedLines = git.changedLines(mergeBase);
+
+        DiffCoverageCalculator calculator = new DiffCoverageCalculator(readCoverage(reportFiles),
+                new PathPatternFilter(includePatterns, excludePatterns));
+        CoverageIndex shardCoverage = calculator.changedLineCoverage(changedLines);
+
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("shard", shardId);
+        metadata.put("module", moduleKey());
+        metadata.put("base", mergeBase);
+        metadata.put("head", head);
+        metadata.put("diff", branch + "...HEAD, staged and unstaged changes");
+
+        File shardFile = new File(outputDirectory, "diff-cover-" + shardId + "-" + moduleKey() + SHARD_EXTENSION);
+        try {
+            new CoverageIndexFile(metadata, shardCoverage).write(shardFile);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to write shard file: " + shardFile.getAbsolutePath(), e);
+        }
+        getLog().info("Wrote diff coverage shard " + shardId + " (" + shardCoverage.size() + " changed files): "
+                + shardFile.getAbsolutePath());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.maven.plugins.diffcover;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Include/exclude glob filter for repository-relative paths, mirroring the
+ * comma-separated includePatterns/excludePatterns passed to diff-cover.
+ * A pattern matches either the full path or the file name.
+ */
+public class PathPatternFilter {
+
+    private final List<PathMatcher> includes;
+    private final List<PathMatcher> excludes;
+
+    public PathPatternFilter(String includePatterns, String excludePatterns) {
+        this.includes = compile(includePatterns);
+        this.excludes = compile(excludePatterns);
+    }
+
+    public boolean accepts(String repoPath) {
+        Path path = Paths.get(repoPath);
+        if (!includes.isEmpty() && !matchesAny(includes, path)) {
+            return false;
+        }
+        return !matchesAny(excludes, path);
+    }
+
+    private static boolean matchesAny(List<PathMatcher> matchers, Path path) {
+        Path fileName = path.getFileName();
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(path) || (fileName != null && matcher.matches(fileName))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<PathMatcher> compile(String patterns) {
+        List<PathMatcher> matchers = new ArrayList<>();
+        if (patterns != null && !patterns.trim().isEmpty()) {
+            for (String pattern : patterns.split(",")) {
+                if (!pattern.trim().isEmpty()) {
+                    matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern.trim()));
+                }
+            }
+        }
+        return matchers;
+    }
+}
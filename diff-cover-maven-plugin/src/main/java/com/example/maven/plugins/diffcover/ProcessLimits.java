@@ -0,0 +1,38 @@
+package com.example.maven.plugins.diffcover;
+
+/**
+ * Resource limits for one supervised launch and its descendants. A value of 0 means unlimited.
+ */
+public class ProcessLimits {
+
+    private final long timeoutMillis;
+    private final long memoryBytes;
+    private final long cpuMillis;
+
+    /**
+     * @param timeoutMillis wall-clock limit
+     * @param memoryBytes   limit for the summed resident memory of the process tree
+     * @param cpuMillis     limit for the summed CPU time of the process tree
+     */
+    public ProcessLimits(long timeoutMillis, long memoryBytes, long cpuMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.memoryBytes = memoryBytes;
+        this.cpuMillis = cpuMillis;
+    }
+
+    public ProcessLimits withTimeout(long timeoutMillis) {
+        return new ProcessLimits(timeoutMillis, memoryBytes, cpuMillis);
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public long getCpuMillis() {
+        return cpuMillis;
+    }
+}
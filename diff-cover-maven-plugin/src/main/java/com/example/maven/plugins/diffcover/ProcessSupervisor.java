@@ -0,0 +1,95 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Starts the plugin's external processes (git, pip, diff-cover) under resource limits.
+ *
+ * A single daemon thread samples the process table for all running launches every
+ * {@value #SAMPLE_INTERVAL_MILLIS} ms, tracks their descendants and kills a tree that
+ * exceeds its wall-clock, memory or CPU limit. A shutdown hook kills every tree that is
+ * still running when the JVM exits (e.g. Ctrl+C on the build).
+ */
+public class ProcessSupervisor {
+
+    static final long SAMPLE_INTERVAL_MILLIS = 500;
+
+    private static final Set<SupervisedProcess> ACTIVE = ConcurrentHashMap.newKeySet();
+    private static ScheduledExecutorService monitor;
+
+    private final Log log;
+    private final ProcessLimits limits;
+
+    public ProcessSupervisor(Log log, ProcessLimits limits) {
+        this.log = log;
+        this.limits = limits;
+    }
+
+    public ProcessLimits getLimits() {
+        return limits;
+    }
+
+    public SupervisedProcess start(String name, ProcessBuilder builder) throws IOException {
+        return start(name, builder, limits);
+    }
+
+    public SupervisedProcess start(String name, ProcessBuilder builder, ProcessLimits launchLimits) throws IOException {
+        startMonitor();
+        SupervisedProcess process = new SupervisedProcess(name, builder.start(), launchLimits, log);
+        ACTIVE.add(process);
+        return process;
+    }
+
+    static void release(SupervisedProcess process) {
+        ACTIVE.remove(process);
+    }
+
+    private static synchronized void startMonitor() {
+        if (monitor != null) {
+            return;
+        }
+        monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "diff-cover-process-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleWithFixedDelay(ProcessSupervisor::sampleAll,
+                SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(ProcessSupervisor::reapAll, "diff-cover-process-reaper"));
+    }
+
+    private static void sampleAll() {
+        if (ACTIVE.isEmpty()) {
+            return;
+        }
+        // Tek bir ps çağrısı tüm çalışan process'ler için kullanılır
+        ProcessTable table = null;
+        if (ProcessTable.isSupported()) {
+            try {
+                table = ProcessTable.snapshot();
+            } catch (IOException e) {
+                // Bu turda yalnızca süre sınırı uygulanır
+            }
+        }
+        for (SupervisedProcess process : ACTIVE) {
+            try {
+                process.sample(table);
+            } catch (RuntimeException e) {
+                // Zamanlanmış görev bir hata yüzünden durmamalı
+            }
+        }
+    }
+
+    private static void reapAll() {
+        for (SupervisedProcess process : ACTIVE) {
+            process.reap("JVM shutdown");
+        }
+    }
+}
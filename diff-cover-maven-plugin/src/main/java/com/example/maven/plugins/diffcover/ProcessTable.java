@@ -0,0 +1,213 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of the operating system's process table (pid, parent, resident memory,
+ * cumulative CPU time and start time), read with a single {@code ps} call.
+ *
+ * The plugin targets Java 8, which has no {@code ProcessHandle}; {@code ps} gives the
+ * parent links needed to find descendants plus the memory and CPU figures that
+ * {@code ProcessHandle} would not provide anyway. Works on Linux and macOS.
+ */
+public class ProcessTable {
+
+    private static final boolean WINDOWS = System.getProperty("os.name").toLowerCase(Locale.ROOT).startsWith("windows");
+
+    private final Map<Long, Entry> entries;
+    private final long takenNanos;
+
+    private ProcessTable(Map<Long, Entry> entries, long takenNanos) {
+        this.entries = entries;
+        this.takenNanos = takenNanos;
+    }
+
+    public static boolean isSupported() {
+        return !WINDOWS;
+    }
+
+    public static ProcessTable snapshot() throws IOException {
+        long takenNanos = System.nanoTime();
+        Process ps = new ProcessBuilder("ps", "-A", "-o", "pid=", "-o", "ppid=", "-o", "rss=", "-o", "time=", "-o", "lstart=")
+                .redirectErrorStream(true)
+                .start();
+        ProcessTable table;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ps.getInputStream(), StandardCharsets.UTF_8))) {
+            table = parse(reader, takenNanos);
+        }
+        try {
+            if (ps.waitFor() != 0) {
+                throw new IOException("ps failed with exit code " + ps.exitValue());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading the process table", e);
+        }
+        return table;
+    }
+
+    /**
+     * Parses the output of {@code ps -o pid= -o ppid= -o rss= -o time= -o lstart=}.
+     */
+    static ProcessTable parse(BufferedReader reader, long takenNanos) throws IOException {
+        Map<Long, Entry> entries = new HashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            // pid ppid rss time lstart (lstart boşluk içerir, satırın geri kalanı)
+            String[] fields = line.trim().split("\\s+", 5);
+            if (fields.length < 5) {
+                continue;
+            }
+            try {
+                Entry entry = new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                        Long.parseLong(fields[2]), parseCpuTime(fields[3]), fields[4]);
+                entries.put(entry.pid, entry);
+            } catch (NumberFormatException e) {
+                // Başlık ya da beklenmeyen satır
+            }
+        }
+        return new ProcessTable(entries, takenNanos);
+    }
+
+    /**
+     * {@link System#nanoTime()} just before {@code ps} was started; processes started
+     * earlier than this are guaranteed to be in the snapshot if they were alive.
+     */
+    public long getTakenNanos() {
+        return takenNanos;
+    }
+
+    public Entry get(long pid) {
+        return entries.get(pid);
+    }
+
+    /**
+     * The given process and all of its live descendants, parents before children.
+     */
+    public List<Entry> tree(long rootPid) {
+        Map<Long, List<Entry>> children = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            children.computeIfAbsent(entry.ppid, key -> new ArrayList<>()).add(entry);
+        }
+        List<Entry> tree = new ArrayList<>();
+        Entry root = entries.get(rootPid);
+        if (root != null) {
+            tree.add(root);
+            for (int i = 0; i < tree.size(); i++) {
+                List<Entry> direct = children.get(tree.get(i).pid);
+                if (direct != null) {
+                    tree.addAll(direct);
+                }
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Sends a signal (e.g. TERM, KILL) to the given processes; processes that are
+     * already gone are ignored.
+     */
+    public static void signal(String signal, Collection<Long> pids) throws IOException {
+        if (pids.isEmpty()) {
+            return;
+        }
+        List<String> command = new ArrayList<>(Arrays.asList("kill", "-" + signal));
+        for (Long pid : pids) {
+            command.add(String.valueOf(pid));
+        }
+        Process kill = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try {
+            kill.getInputStream().close();
+            kill.waitFor(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Operating system pid of a started process, or -1 if it cannot be determined.
+     */
+    public static long pid(Process process) {
+        try {
+            // Java 9+: Process.pid()
+            return (Long) Process.class.getMethod("pid").invoke(process);
+        } catch (NoSuchMethodException e) {
+            try {
+                // Java 8: java.lang.UNIXProcess.pid
+                Field field = process.getClass().getDeclaredField("pid");
+                field.setAccessible(true);
+                return field.getLong(process);
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+                return -1;
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parses ps' cumulative CPU time: {@code [DD-]HH:MM:SS} on Linux, {@code M:SS.ss} on macOS.
+     */
+    static long parseCpuTime(String value) {
+        long days = 0;
+        String time = value;
+        int dash = value.indexOf('-');
+        if (dash >= 0) {
+            days = Long.parseLong(value.substring(0, dash));
+            time = value.substring(dash + 1);
+        }
+        double seconds = 0;
+        for (String part : time.split(":")) {
+            seconds = seconds * 60 + Double.parseDouble(part);
+        }
+        return TimeUnit.DAYS.toMillis(days) + Math.round(seconds * 1000);
+    }
+
+    public static final class Entry {
+        private final long pid;
+        private final long ppid;
+        private final long rssKb;
+        private final long cpuMillis;
+        private final String started;
+
+        Entry(long pid, long ppid, long rssKb, long cpuMillis, String started) {
+            this.pid = pid;
+            this.ppid = ppid;
+            this.rssKb = rssKb;
+            this.cpuMillis = cpuMillis;
+            this.started = started;
+        }
+
+        public long getPid() {
+            return pid;
+        }
+
+        public long getRssKb() {
+            return rssKb;
+        }
+
+        public long getCpuMillis() {
+            return cpuMillis;
+        }
+
+        /**
+         * Start time as printed by ps; together with the pid it identifies a process
+         * even after the pid has been reused.
+         */
+        public String getStarted() {
+            return started;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Publishes a compressed coverage snapshot of the current build to the snapshot store.
+ *
+ * Run this on the base branch (e.g. after each merge to main); the diff-coverage goal
+ * then loads the snapshot of the merge-base to report per-file coverage deltas
+ * without rebuilding the base branch.
+ *
+ * The goal runs once per reactor module and publishes that module's coverage under its
+ * own key; the diff-coverage goal merges the module snapshots of a commit when loading it.
+ */
+@Mojo(name = "publish-snapshot", defaultPhase = LifecyclePhase.VERIFY, requiresProject = true)
+public class PublishSnapshotMojo extends AbstractDiffCoverMojo {
+
+    /**
+     * Commit the snapshot is published for.
+     * Can be overridden with -Ddiff-cover.snapshotCommit=HEAD
+     */
+    @Parameter(property = "diff-cover.snapshotCommit", defaultValue = "HEAD")
+    private String snapshotCommit;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Diff-cover snapshot publishing skipped");
+            return;
+        }
+
+        List<File> reportFiles = findCoverageReports();
+        if (reportFiles.isEmpty()) {
+            warnNoCoverageReports();
+            return;
+        }
+
+        String commitId = createGitClient().revParse(snapshotCommit);
+        CoverageIndex index = readCoverage(reportFiles);
+
+        try {
+            File snapshot = createSnapshotStore().publish(commitId, moduleKey(), index);
+            getLog().info("Published coverage snapshot for " + commitId + " (" + index.size() + " files, "
+                    + snapshot.length() + " bytes): " + snapshot.getAbsolutePath());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to publish coverage snapshot to " + snapshotDirectory, e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Computes the diff coverage of every commit in a range (e.g. {@code v1.4..v1.5}) in one pass.
+ *
+ * The coverage of the checked-out build is read once. Every line of the working tree is
+ * attributed to the commit of the range that last changed it (git blame), and each commit's
+ * lines are intersected with the shared index, so no per-commit build or diff-cover launch
+ * is needed. Lines a commit changed that were rewritten later in the range count for the
+ * later commit.
+ */
+@Mojo(name = "range", requiresProject = true, aggregator = true)
+public class RangeDiffCoverageMojo extends AbstractDiffCoverMojo {
+
+    /**
+     * Commit range to audit, as from..to. The range must end at the checked-out commit whose
+     * coverage was measured; "v1.4.." is short for "v1.4..HEAD".
+     * Can be overridden with -Ddiff-cover.range=v1.4..v1.5
+     */
+    @Parameter(property = "diff-cover.range", required = true)
+    private String range;
+
+    /**
+     * Report formats to generate: csv, json (comma-separated).
+     * Can be overridden with -Ddiff-cover.reportFormats=csv
+     */
+    @Parameter(property = "diff-cover.reportFormats", defaultValue = "csv,json")
+    private String reportFormats;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Diff-cover execution skipped");
+            return;
+        }
+
+        List<File> reportFiles = findCoverageReports();
+        if (reportFiles.isEmpty()) {
+            warnNoCoverageReports();
+            return;
+        }
+
+        long start = System.nanoTime();
+        GitClient git = createGitClient();
+        String since = parseRangeStart(git);
+        List<GitClient.Commit> commits = git.log(since + "..HEAD");
+        getLog().info("Computing diff coverage of " + commits.size() + " commits in " + range);
+
+        CoverageIndex index = readCoverage(reportFiles);
+        PathPatternFilter filter = new PathPatternFilter(includePatterns, excludePatterns);
+
+        // Sadece coverage verisi olan dosyalar blame edilir (pom, doküman vb. atlanır)
+        List<String> files = new ArrayList<>();
+        for (String path : git.changedFiles(since)) {
+            if (filter.accepts(path) && index.find(path) != null) {
+                files.add(path);
+            }
+        }
+        Map<String, Map<String, SortedSet<Integer>>> linesByCommit = attributeLines(git, since, files);
+
+        DiffCoverageCalculator calculator = new DiffCoverageCalculator(index, filter);
+        Map<GitClient.Commit, DiffCoverageResult> results = new LinkedHashMap<>();
+        for (GitClient.Commit commit : commits) {
+            Map<String, SortedSet<Integer>> changedLines = linesByCommit.get(commit.getId());
+            DiffCoverageResult result = calculator.calculate(commit.getId(),
+                    changedLines != null ? changedLines : Collections.<String, SortedSet<Integer>>emptyMap());
+            results.put(commit, result);
+            logCommit(commit, result);
+        }
+
+        writeReports(results);
+        getLog().info(String.format("Diff coverage of %d commits (%d files) computed in %d ms", commits.size(),
+                files.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    private String parseRangeStart(GitClient git) throws MojoExecutionException {
+        int separator = range.indexOf("..");
+        if (separator <= 0 || range.contains("...")) {
+            throw new MojoExecutionException("Invalid commit range (expected from..to): " + range);
+        }
+        String since = range.substring(0, separator).trim();
+        String until = range.substring(separator + 2).trim();
+        git.revParse(since);
+        if (!until.isEmpty() && !git.revParse(until).equals(git.revParse("HEAD"))) {
+            throw new MojoExecutionException("Commit range must end at the checked-out commit whose coverage was measured: "
+                    + range + ". Check out " + until + " and run the tests first.");
+        }
+        return since;
+    }
+
+    /**
+     * Blames the given files in parallel and regroups the result by commit:
+     * commit -> path -> working tree lines last changed by that commit.
+     */
+    private Map<String, Map<String, SortedSet<Integer>>> attributeLines(GitClient git, String since, List<String> files)
+            throws MojoExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors())));
+        try {
+            Map<String, Future<Map<String, SortedSet<Integer>>>> blames = new LinkedHashMap<>();
+            for (String file : files) {
+                blames.put(file, executor.submit(() -> git.blame(since, file)));
+            }
+
+            Map<String, Map<String, SortedSet<Integer>>> linesByCommit = new HashMap<>();
+            for (Map.Entry<String, Future<Map<String, SortedSet<Integer>>>> blame : blames.entrySet()) {
+                for (Map.Entry<String, SortedSet<Integer>> commitLines : await(blame.getValue()).entrySet()) {
+                    linesByCommit.computeIfAbsent(commitLines.getKey(), key -> new TreeMap<>())
+                            .put(blame.getKey(), commitLines.getValue());
+                }
+            }
+            return linesByCommit;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws MojoExecutionException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while running git blame", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MojoExecutionException) {
+                throw (MojoExecutionException) e.getCause();
+            }
+            throw new MojoExecutionException("git blame failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void logCommit(GitClient.Commit commit, DiffCoverageResult result) {
+        String coverage = result.getTotalLines() == 0 ? "   -"
+                : String.format("%3d%%", result.getTotalPercentCovered());
+        getLog().info(String.format("%.10s %s (%d/%d lines) %s", commit.getId(), coverage,
+                result.getTotalLines() - result.getTotalViolations(), result.getTotalLines(), commit.getSubject()));
+    }
+
+    private void writeReports(Map<GitClient.Commit, DiffCoverageResult> results) throws MojoExecutionException {
+        CommitRangeReportWriter writer = new CommitRangeReportWriter();
+        for (String format : reportFormats.toLowerCase().split(",")) {
+            format = format.trim();
+            if (format.isEmpty()) {
+                continue;
+            }
+            File report = new File(outputDirectory, "diff-cover-range." + format);
+            try {
+                if ("csv".equals(format)) {
+                    writer.writeCsv(results, report);
+                } else if ("json".equals(format)) {
+                    writer.writeJson(results, report);
+                } else {
+                    getLog().warn("Unsupported report format for range: " + format);
+                    continue;
+                }
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to write range report: " + report.getAbsolutePath(), e);
+            }
+            getLog().info(format.toUpperCase() + " report generated: " + report.getAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Maps the package-relative paths used by coverage reports (e.g. {@code com/example/App.java})
+ * to repository-relative paths (e.g. {@code module-a/src/main/java/com/example/App.java}).
+ *
+ * The source roots of all reactor projects are walked once on first use; afterwards each
+ * coverage entry resolves with a single hash lookup. When several modules contain the same
+ * package-relative path, the module that produced the report wins.
+ */
+public class SourceRootIndex {
+
+    private final Path repositoryRoot;
+    // source root -> owning module base directory
+    private final Map<Path, Path> sourceRoots = new LinkedHashMap<>();
+    private Map<String, List<Entry>> entries;
+
+    public SourceRootIndex(File repositoryRoot) {
+        this.repositoryRoot = repositoryRoot.toPath().toAbsolutePath().normalize();
+    }
+
+    public void addSourceRoot(File sourceRoot, File moduleDir) {
+        Path root = sourceRoot.toPath().toAbsolutePath().normalize();
+        if (Files.isDirectory(root) && !sourceRoots.containsKey(root)) {
+            sourceRoots.put(root, moduleDir.toPath().toAbsolutePath().normalize());
+            entries = null;
+        }
+    }
+
+    public Path getRepositoryRoot() {
+        return repositoryRoot;
+    }
+
+    public List<File> getSourceRoots() {
+        List<File> roots = new ArrayList<>();
+        for (Path root : sourceRoots.keySet()) {
+            roots.add(root.toFile());
+        }
+        return roots;
+    }
+
+    /**
+     * Resolves a package-relative path to its repository-relative path, or returns
+     * {@code null} if no source root contains it.
+     *
+     * @param moduleDir base directory of the module whose report names the file, may be {@code null}
+     */
+    public String resolve(String packagePath, File moduleDir) throws IOException {
+        List<Entry> candidates = entries().get(packagePath);
+        if (candidates == null) {
+            return null;
+        }
+        if (candidates.size() > 1 && moduleDir != null) {
+            Path module = moduleDir.toPath().toAbsolutePath().normalize();
+            for (Entry candidate : candidates) {
+                if (candidate.moduleDir.equals(module)) {
+                    return candidate.repoPath;
+                }
+            }
+        }
+        return candidates.get(0).repoPath;
+    }
+
+    /**
+     * Inverse of {@link #resolve}: returns the package-relative path of a repository-relative
+     * path, or {@code null} if it is not under any source root.
+     */
+    public String toPackagePath(String repoPath) {
+        Path file = repositoryRoot.resolve(repoPath).normalize();
+        for (Path root : sourceRoots.keySet()) {
+            if (file.startsWith(root)) {
+                return toUnixPath(root.relativize(file));
+            }
+        }
+        return null;
+    }
+
+    private Map<String, List<Entry>> entries() throws IOException {
+        if (entries == null) {
+            Map<String, List<Entry>> index = new HashMap<>();
+            for (Map.Entry<Path, Path> root : sourceRoots.entrySet()) {
+                try (Stream<Path> files = Files.walk(root.getKey())) {
+                    files.filter(Files::isRegularFile).forEach(file -> {
+                        String packagePath = toUnixPath(root.getKey().relativize(file));
+                        String repoPath = toUnixPath(repositoryRoot.relativize(file));
+                        index.computeIfAbsent(packagePath, key -> new ArrayList<>(1))
+                                .add(new Entry(repoPath, root.getValue()));
+                    });
+                }
+            }
+            entries = Collections.unmodifiableMap(index);
+        }
+        return entries;
+    }
+
+    private static String toUnixPath(Path path) {
+        return path.toString().replace(File.separatorChar, '/');
+    }
+
+    private static final class Entry {
+        private final String repoPath;
+        private final Path moduleDir;
+
+        Entry(String repoPath, Path moduleDir) {
+            this.repoPath = repoPath;
+            this.moduleDir = moduleDir;
+        }
+    }
+}
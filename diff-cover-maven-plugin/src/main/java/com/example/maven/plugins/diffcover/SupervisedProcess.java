@@ -0,0 +1,317 @@
+package com.example.maven.plugins.diffcover;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * A process started through {@link ProcessSupervisor}, together with every descendant
+ * seen while it ran.
+ *
+ * Descendants are remembered by pid and start time, so children that were re-parented
+ * after their parent died are still reaped, and a reused pid is never signalled. The tree
+ * is killed when a limit is exceeded, when the caller is interrupted, when the launch
+ * fails (non-zero exit or an exception before {@link #waitFor()}) and on JVM shutdown.
+ * After a successful exit nothing is killed. Use with try-with-resources.
+ */
+public class SupervisedProcess implements AutoCloseable {
+
+    private static final long GRACE_MILLIS = 2000;
+
+    private final String name;
+    private final Process process;
+    private final ProcessLimits limits;
+    private final Log log;
+    private final long pid;
+    private final long startNanos = System.nanoTime();
+
+    // pid -> ps start time of every process seen in the tree
+    private final Map<Long, String> members = new HashMap<>();
+    // "pid start" -> last sampled cumulative CPU time
+    private final Map<String, Long> cpuMillis = new HashMap<>();
+    // ps start time of the launched process, recorded on first sight
+    private String rootStarted;
+    private long peakRssKb;
+    private boolean sampled;
+    private Long endNanos;
+    private boolean reaped;
+    private final CountDownLatch reapDone = new CountDownLatch(1);
+    private volatile String violation;
+
+    SupervisedProcess(String name, Process process, ProcessLimits limits, Log log) {
+        this.name = name;
+        this.process = process;
+        this.limits = limits;
+        this.log = log;
+        this.pid = ProcessTable.pid(process);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Process getProcess() {
+        return process;
+    }
+
+    /**
+     * Waits for the process within the wall-clock limit and returns its exit code.
+     *
+     * @throws MojoExecutionException if a limit was exceeded or the wait was interrupted;
+     *                                the process tree has been killed in that case
+     */
+    public int waitFor() throws MojoExecutionException {
+        try {
+            if (limits.getTimeoutMillis() > 0) {
+                long remaining = limits.getTimeoutMillis() - elapsedMillis();
+                if (!process.waitFor(Math.max(remaining, 0), TimeUnit.MILLISECONDS)) {
+                    exceeded("wall-clock limit of " + formatMillis(limits.getTimeoutMillis()));
+                }
+            } else {
+                process.waitFor();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reap("interrupted");
+            throw new MojoExecutionException(name + " was interrupted; process tree killed", e);
+        }
+        if (violation != null) {
+            // Sınır aşımında ağaç arka planda öldürülüyor; bitmesini bekle
+            reap(violation);
+            markEnd();
+            throw new MojoExecutionException(name + " exceeded its " + violation + "; process tree killed");
+        }
+        markEnd();
+        return process.exitValue();
+    }
+
+    /**
+     * Wall time, and when the process table could be sampled, CPU time and peak resident
+     * memory summed over the whole tree.
+     */
+    public synchronized String getUsage() {
+        StringBuilder usage = new StringBuilder(name).append(": wall ").append(formatMillis(elapsedMillis()));
+        if (sampled) {
+            long cpu = 0;
+            for (Long value : cpuMillis.values()) {
+                cpu += value;
+            }
+            usage.append(", cpu ").append(formatMillis(cpu))
+                    .append(", peak rss ").append(peakRssKb / 1024).append(" MB, ")
+                    .append(members.size()).append(members.size() == 1 ? " process" : " processes");
+        }
+        return usage.toString();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (process.isAlive() || process.exitValue() != 0) {
+                // Başarısız çalıştırma: geride kalan alt process'ler de temizlenir
+                reap("failed");
+            }
+            markEnd();
+            if (log.isDebugEnabled()) {
+                log.debug("Process usage - " + getUsage());
+            }
+        } finally {
+            ProcessSupervisor.release(this);
+        }
+    }
+
+    /**
+     * Records the tree's current members and usage from a process table snapshot
+     * ({@code null} if unavailable) and enforces the limits.
+     */
+    synchronized void sample(ProcessTable table) {
+        if (reaped) {
+            return;
+        }
+        if (table != null && pid > 0) {
+            recordTree(table);
+            long rssKb = 0;
+            for (ProcessTable.Entry entry : liveMembers(table)) {
+                rssKb += entry.getRssKb();
+                cpuMillis.put(entry.getPid() + " " + entry.getStarted(), entry.getCpuMillis());
+            }
+            peakRssKb = Math.max(peakRssKb, rssKb);
+            sampled = true;
+
+            if (limits.getMemoryBytes() > 0 && rssKb * 1024 > limits.getMemoryBytes()) {
+                exceeded("memory limit of " + limits.getMemoryBytes() / (1024 * 1024) + " MB ("
+                        + rssKb / 1024 + " MB resident)");
+                return;
+            }
+            if (limits.getCpuMillis() > 0) {
+                long cpu = 0;
+                for (Long value : cpuMillis.values()) {
+                    cpu += value;
+                }
+                if (cpu > limits.getCpuMillis()) {
+                    exceeded("CPU limit of " + formatMillis(limits.getCpuMillis()));
+                    return;
+                }
+            }
+        }
+        // Çıktı okunurken de süre sınırı uygulansın (waitFor'a gelinmeden)
+        if (limits.getTimeoutMillis() > 0 && process.isAlive() && elapsedMillis() > limits.getTimeoutMillis()) {
+            exceeded("wall-clock limit of " + formatMillis(limits.getTimeoutMillis()));
+        }
+    }
+
+    /**
+     * Kills the process and every known descendant that is still alive: TERM first,
+     * KILL for whatever is left after a short grace period. If the tree is already being
+     * reaped on another thread, waits for that to finish.
+     */
+    void reap(String reason) {
+        if (claimReap(reason)) {
+            killTree();
+        } else {
+            awaitReap();
+        }
+    }
+
+    /**
+     * Like {@link #reap(String)}, but kills the tree on a separate thread, so the shared
+     * monitor thread keeps enforcing the limits of other launches during the grace period.
+     */
+    private void reapInBackground(String reason) {
+        if (claimReap(reason)) {
+            Thread reaper = new Thread(this::killTree, "diff-cover-reap-" + name);
+            reaper.setDaemon(true);
+            reaper.start();
+        }
+    }
+
+    private synchronized boolean claimReap(String reason) {
+        if (reaped) {
+            return false;
+        }
+        reaped = true;
+        if (log.isDebugEnabled()) {
+            log.debug("Killing process tree of " + name + " (" + reason + ")");
+        }
+        return true;
+    }
+
+    private void killTree() {
+        try {
+            if (pid > 0 && ProcessTable.isSupported()) {
+                try {
+                    List<Long> remaining = livePids();
+                    ProcessTable.signal("TERM", remaining);
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(GRACE_MILLIS);
+                    while (!remaining.isEmpty() && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        remaining = livePids();
+                    }
+                    ProcessTable.signal("KILL", remaining);
+                } catch (IOException e) {
+                    log.debug("Could not inspect the process tree of " + name + ": " + e.getMessage());
+                }
+            }
+            process.destroyForcibly();
+        } finally {
+            reapDone.countDown();
+        }
+    }
+
+    private void awaitReap() {
+        try {
+            // KILL ve ps çağrıları için grace süresinin üzerine pay bırakılır
+            reapDone.await(GRACE_MILLIS + 5000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void exceeded(String limit) {
+        if (violation == null) {
+            violation = limit;
+            log.warn(name + " exceeded its " + limit + ", killing process tree");
+        }
+        reapInBackground(limit);
+    }
+
+    private List<Long> livePids() throws IOException {
+        ProcessTable table = ProcessTable.snapshot();
+        synchronized (this) {
+            return pids(treeWithKnownMembers(table));
+        }
+    }
+
+    private List<ProcessTable.Entry> treeWithKnownMembers(ProcessTable table) {
+        recordTree(table);
+        return liveMembers(table);
+    }
+
+    /**
+     * Adds the current descendants to the known members, but only while the launched
+     * process is alive and the pid still belongs to it. Once it has exited its pid may
+     * be reused by an unrelated process, so only the members recorded so far are used.
+     */
+    private void recordTree(ProcessTable table) {
+        ProcessTable.Entry root = table.get(pid);
+        if (root == null || !process.isAlive()) {
+            return;
+        }
+        if (rootStarted == null) {
+            // Snapshot process başlatılmadan önce alındıysa pid henüz başkasına ait olabilir
+            if (table.getTakenNanos() < startNanos) {
+                return;
+            }
+            rootStarted = root.getStarted();
+        } else if (!rootStarted.equals(root.getStarted())) {
+            return;
+        }
+        for (ProcessTable.Entry entry : table.tree(pid)) {
+            members.put(entry.getPid(), entry.getStarted());
+        }
+    }
+
+    private List<ProcessTable.Entry> liveMembers(ProcessTable table) {
+        List<ProcessTable.Entry> live = new ArrayList<>();
+        for (Map.Entry<Long, String> member : members.entrySet()) {
+            ProcessTable.Entry entry = table.get(member.getKey());
+            if (entry != null && entry.getStarted().equals(member.getValue())) {
+                live.add(entry);
+            }
+        }
+        return live;
+    }
+
+    private static List<Long> pids(List<ProcessTable.Entry> entries) {
+        List<Long> pids = new ArrayList<>();
+        for (ProcessTable.Entry entry : entries) {
+            pids.add(entry.getPid());
+        }
+        return pids;
+    }
+
+    private synchronized void markEnd() {
+        if (endNanos == null && !process.isAlive()) {
+            endNanos = System.nanoTime();
+        }
+    }
+
+    private long elapsedMillis() {
+        long end = endNanos != null ? endNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    private static String formatMillis(long millis) {
+        return millis < 1000 ? millis + " ms" : String.format("%.1f s", millis / 1000.0);
+    }
+}
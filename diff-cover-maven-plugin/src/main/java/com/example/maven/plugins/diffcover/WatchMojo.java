@@ -0,0 +1,284 @@
+package com.example.maven.plugins.diffcover;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Long-running goal that keeps the parsed coverage and the diff in memory and
+ * recomputes diff coverage as sources or coverage reports change.
+ *
+ * A changed source file only re-diffs and re-intersects that file; a regenerated
+ * report is re-parsed on its own and merged with the others. Stop with Ctrl+C.
+ */
+@Mojo(name = "watch", requiresProject = true, aggregator = true)
+public class WatchMojo extends AbstractDiffCoverMojo {
+
+    /**
+     * Quiet period in milliseconds after the last file event before recomputing,
+     * so a burst of saves or a report rewrite triggers a single update.
+     * Can be overridden with -Ddiff-cover.debounceMillis=200
+     */
+    @Parameter(property = "diff-cover.debounceMillis", defaultValue = "200")
+    private long debounceMillis;
+
+    private final Map<Path, CoverageIndex> reportCoverage = new LinkedHashMap<>();
+    private final Map<String, SortedSet<Integer>> changedLines = new TreeMap<>();
+    private final Map<String, DiffCoverageResult.FileResult> fileResults = new TreeMap<>();
+    private final Map<WatchKey, Path> watchedDirs = new HashMap<>();
+    private final Set<Path> reportDirs = new LinkedHashSet<>();
+    private final Set<Path> registeredDirs = new HashSet<>();
+    // Son güncellemede işlenemeyen yollar; bir sonraki olayda tekrar denenir
+    private final Set<Path> pending = new LinkedHashSet<>();
+
+    private GitClient git;
+    private String mergeBase;
+    private Path repositoryRoot;
+    private DiffCoverageCalculator calculator;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Diff-cover execution skipped");
+            return;
+        }
+        requireSingleBranch();
+
+        List<File> reportFiles = findCoverageReports();
+        if (reportFiles.isEmpty()) {
+            warnNoCoverageReports();
+            return;
+        }
+
+        git = createGitClient();
+        mergeBase = git.mergeBase(branch, "HEAD");
+        repositoryRoot = git.getTopLevel().toPath().toAbsolutePath().normalize();
+
+        for (File report : reportFiles) {
+            Path reportPath = report.toPath().toAbsolutePath().normalize();
+            reportCoverage.put(reportPath, readCoverage(Collections.singletonList(report)));
+            reportDirs.add(reportPath.getParent());
+        }
+        changedLines.putAll(git.changedLines(mergeBase));
+        rebuildCoverage();
+        recomputeAll();
+        printResult(0);
+
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            for (File root : getSourceRootIndex().getSourceRoots()) {
+                registerTree(watcher, root.toPath());
+            }
+            registerReportDirs(watcher);
+            getLog().info("Watching " + watchedDirs.size() + " directories for changes. Press Ctrl+C to stop.");
+
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watcher.poll(1, TimeUnit.SECONDS);
+                if (key == null) {
+                    // mvn clean ile silinen rapor dizinleri yeniden oluşmuş olabilir
+                    Set<Path> reappeared = registerReportDirs(watcher);
+                    if (!reappeared.isEmpty()) {
+                        updateOrRetry(reappeared);
+                    }
+                    continue;
+                }
+
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(watcher, key, changed);
+                // Debounce: olay akışı durana kadar topla
+                while ((key = watcher.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collect(watcher, key, changed);
+                }
+                updateOrRetry(changed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            getLog().info("Diff-cover watch stopped");
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to watch for file changes", e);
+        }
+    }
+
+    /**
+     * Applies the changes, or keeps the previous coverage and diff state when a report
+     * cannot be read (e.g. a half-written jacoco.xml) or git fails, and retries the same
+     * paths together with the next event.
+     */
+    private void updateOrRetry(Set<Path> changed) {
+        Set<Path> paths = new LinkedHashSet<>(pending);
+        paths.addAll(changed);
+        try {
+            update(paths);
+            pending.clear();
+        } catch (MojoExecutionException e) {
+            pending.clear();
+            pending.addAll(paths);
+            getLog().warn("Could not update diff coverage, retrying on the next change: " + e.getMessage());
+        }
+    }
+
+    private void update(Set<Path> changed) throws MojoExecutionException {
+        long start = System.nanoTime();
+
+        // Önce her şey okunur, durum yalnızca tümü başarılı olursa güncellenir
+        Map<Path, CoverageIndex> rereadReports = new LinkedHashMap<>();
+        Set<String> changedSources = new LinkedHashSet<>();
+        for (Path path : changed) {
+            if (reportCoverage.containsKey(path)) {
+                if (Files.isRegularFile(path)) {
+                    rereadReports.put(path, readCoverage(Collections.singletonList(path.toFile())));
+                }
+            } else if (path.startsWith(repositoryRoot) && !reportDirs.contains(path.getParent())) {
+                changedSources.add(repositoryRoot.relativize(path).toString().replace(File.separatorChar, '/'));
+            }
+        }
+
+        if (!changedSources.isEmpty()) {
+            Map<String, SortedSet<Integer>> rediffed = git.changedLines(mergeBase, changedSources);
+            for (String path : changedSources) {
+                SortedSet<Integer> lines = rediffed.get(path);
+                if (lines == null) {
+                    changedLines.remove(path);
+                } else {
+                    changedLines.put(path, lines);
+                }
+            }
+        }
+        reportCoverage.putAll(rereadReports);
+        boolean reportsChanged = !rereadReports.isEmpty();
+
+        if (reportsChanged) {
+            rebuildCoverage();
+            recomputeAll();
+        } else if (!changedSources.isEmpty()) {
+            recompute(changedSources);
+        } else {
+            return;
+        }
+        printResult(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void rebuildCoverage() {
+        CoverageIndex combined = new CoverageIndex();
+        for (CoverageIndex index : reportCoverage.values()) {
+            combined.merge(index);
+        }
+        calculator = new DiffCoverageCalculator(combined, new PathPatternFilter(includePatterns, excludePatterns));
+    }
+
+    private void recomputeAll() {
+        fileResults.clear();
+        recompute(changedLines.keySet());
+    }
+
+    private void recompute(Set<String> paths) {
+        Map<String, SortedSet<Integer>> subset = new TreeMap<>();
+        for (String path : paths) {
+            fileResults.remove(path);
+            SortedSet<Integer> lines = changedLines.get(path);
+            if (lines != null) {
+                subset.put(path, lines);
+            }
+        }
+        for (DiffCoverageResult.FileResult file : calculator.calculate(diffName(), subset).getFiles()) {
+            fileResults.put(file.getPath(), file);
+        }
+    }
+
+    private void printResult(long elapsedMillis) {
+        DiffCoverageResult result = new DiffCoverageResult(diffName());
+        for (DiffCoverageResult.FileResult file : fileResults.values()) {
+            result.addFile(file);
+        }
+        logResult(result);
+        if (elapsedMillis > 0) {
+            getLog().info("Updated in " + elapsedMillis + " ms");
+        }
+    }
+
+    private String diffName() {
+        return branch + "...HEAD, staged and unstaged changes";
+    }
+
+    private void collect(WatchService watcher, WatchKey key, Set<Path> changed) throws IOException {
+        Path dir = watchedDirs.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW || dir == null) {
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path) && !reportDirs.contains(dir)) {
+                registerTree(watcher, path);
+            } else if (!Files.isDirectory(path)) {
+                changed.add(path);
+            }
+        }
+        if (!key.reset()) {
+            watchedDirs.remove(key);
+        }
+    }
+
+    private void registerTree(WatchService watcher, Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> dirs = Files.walk(root)) {
+            for (Path dir : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+                register(watcher, dir);
+            }
+        }
+    }
+
+    /**
+     * Registers report directories that exist but are not watched, e.g. after mvn clean
+     * deleted and the next build recreated them, and returns the reports to re-read.
+     */
+    private Set<Path> registerReportDirs(WatchService watcher) throws IOException {
+        Set<Path> reappeared = new LinkedHashSet<>();
+        for (Path dir : reportDirs) {
+            if (Files.isDirectory(dir) && !watchedDirs.containsValue(dir)) {
+                boolean watchedBefore = registeredDirs.contains(dir);
+                register(watcher, dir);
+                if (watchedBefore) {
+                    for (Path report : reportCoverage.keySet()) {
+                        if (report.getParent().equals(dir) && Files.isRegularFile(report)) {
+                            reappeared.add(report);
+                        }
+                    }
+                }
+            }
+        }
+        return reappeared;
+    }
+
+    private void register(WatchService watcher, Path dir) throws IOException {
+        WatchKey key = dir.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        watchedDirs.put(key, dir);
+        registeredDirs.add(dir);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.maven.plugins.diffcover;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.SessionInfoStore;
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.LoggerRuntime;
+import org.jacoco.core.runtime.RuntimeData;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExecutionDataAnalyzerTest {
+
+    private static final String FIXTURE = "src/main/java/fixture/Fixture.java";
+
+    // Satır numaraları aşağıdaki assert'lerle eşleşmeli
+    private static final String[] FIXTURE_SOURCE = {
+            "package fixture;",                        // 1
+            "",                                        // 2
+            "public class Fixture {",                  // 3
+            "",                                        // 4
+            "    public static int covered(int x) {",  // 5
+            "        return x + 1;",                   // 6
+            "    }",                                   // 7
+            "",                                        // 8
+            "    public static int missed(int x) {",   // 9
+            "        return x * 2;",                   // 10
+            "    }",                                   // 11
+            "}"                                        // 12
+    };
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private File repository;
+    private File classes;
+
+    @Before
+    public void compileFixture() throws Exception {
+        repository = temp.newFolder("repo");
+        classes = temp.newFolder("classes");
+        File source = new File(repository, FIXTURE);
+        source.getParentFile().mkdirs();
+        Files.write(source.toPath(), Arrays.asList(FIXTURE_SOURCE), StandardCharsets.UTF_8);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("Tests need a JDK", compiler);
+        assertEquals(0, compiler.run(null, null, null, "-g", "-d", classes.getPath(), source.getPath()));
+    }
+
+    @Test
+    public void reportsLineStatusOfExecutedCode() throws Exception {
+        ExecutionDataStore executionData = run("covered");
+
+        CoverageIndex index = analyze(executionData, Collections.singletonList(FIXTURE));
+
+        FileCoverage fixture = index.get(FIXTURE);
+        assertNotNull(fixture);
+        assertTrue(fixture.isCovered(6));
+        assertTrue(fixture.isInstrumented(10));
+        assertFalse(fixture.isCovered(10));
+        // Hiç çağrılmayan default constructor
+        assertTrue(fixture.isInstrumented(3));
+        assertFalse(fixture.isCovered(3));
+        assertFalse(fixture.isInstrumented(5));
+        assertEquals(1, fixture.getCoveredCount());
+    }
+
+    @Test
+    public void analyzesOnlyPackagesOfChangedFiles() throws Exception {
+        ExecutionDataStore executionData = run("covered");
+
+        CoverageIndex index = analyze(executionData, Collections.singletonList("src/main/java/other/Other.java"));
+
+        assertTrue(index.isEmpty());
+    }
+
+    private CoverageIndex analyze(ExecutionDataStore executionData, List<String> changedFiles)
+            throws Exception {
+        SourceRootIndex sourceRoots = new SourceRootIndex(repository);
+        sourceRoots.addSourceRoot(new File(repository, "src/main/java"), repository);
+        ExecutionDataAnalyzer analyzer = new ExecutionDataAnalyzer(new SystemStreamLog(), executionData, sourceRoots);
+        return analyzer.analyze(Collections.singletonMap(classes, repository), changedFiles);
+    }
+
+    /**
+     * Loads an instrumented copy of the fixture, calls the given method and returns
+     * the collected probes, as the agent would report them.
+     */
+    private ExecutionDataStore run(String method) throws Exception {
+        LoggerRuntime runtime = new LoggerRuntime();
+        RuntimeData data = new RuntimeData();
+        runtime.startup(data);
+        try {
+            byte[] original = Files.readAllBytes(new File(classes, "fixture/Fixture.class").toPath());
+            byte[] instrumented = new Instrumenter(runtime).instrument(original, "fixture.Fixture");
+            Class<?> fixture = new FixtureLoader().define("fixture.Fixture", instrumented);
+            fixture.getMethod(method, int.class).invoke(null, 1);
+
+            ExecutionDataStore executionData = new ExecutionDataStore();
+            data.collect(executionData, new SessionInfoStore(), false);
+            return executionData;
+        } finally {
+            runtime.shutdown();
+        }
+    }
+
+    private static final class FixtureLoader extends ClassLoader {
+        FixtureLoader() {
+            super(ExecutionDataAnalyzerTest.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.maven.plugins.diffcover;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class GitClientTest {
+
+    // git -c core.quotepath=off diff -U0 çıktısından kaydedildi
+    private static final String DIFF = lines(
+            "diff --git a/gone.txt b/gone.txt",
+            "deleted file mode 100644",
+            "index 587be6b..0000000",
+            "--- a/gone.txt",
+            "+++ /dev/null",
+            "@@ -1 +0,0 @@",
+            "-x",
+            "diff --git a/plain.txt b/plain.txt",
+            "index 814f4a4..a8a6bc6 100644",
+            "--- a/plain.txt",
+            "+++ b/plain.txt",
+            "@@ -1,0 +2 @@ one",
+            "+++ weird",
+            "@@ -2,0 +4 @@ two",
+            "+three",
+            "diff --git a/sp ace/g h.txt b/sp ace/g h.txt",
+            "index 422c2b7..3a46218 100644",
+            "--- a/sp ace/g h.txt\t",
+            "+++ b/sp ace/g h.txt\t",
+            "@@ -1,0 +2 @@ a",
+            "+new",
+            "diff --git \"a/\u00e7\\\"q.txt\" \"b/\u00e7\\\"q.txt\"",
+            "index bca70f3..8a08eba 100644",
+            "--- \"a/\u00e7\\\"q.txt\"",
+            "+++ \"b/\u00e7\\\"q.txt\"",
+            "@@ -1,0 +2,2 @@ q",
+            "+r",
+            "+s");
+
+    // git blame --incremental ^<since> -- plain.txt çıktısından kaydedildi: satır 6 commit
+    // edilmemiş, 1-2 ve 4 aralık dışı (boundary), 3 ve 5 "third" commit'inden
+    private static final String THIRD = "1b07a4974c178f8bbbc8ed80e7c2b6242dc17e33";
+    private static final String SECOND = "989b4cb9acc17f142b8b060f0be3e80fd11fffab";
+    private static final String BLAME = lines(
+            "0000000000000000000000000000000000000000 6 6 1",
+            "author Not Committed Yet",
+            "author-mail <not.committed.yet>",
+            "author-time 1792413394",
+            "author-tz +0000",
+            "committer Not Committed Yet",
+            "committer-mail <not.committed.yet>",
+            "committer-time 1792413394",
+            "committer-tz +0000",
+            "summary Version of plain.txt from plain.txt",
+            "previous " + THIRD + " plain.txt",
+            "filename plain.txt",
+            THIRD + " 3 3 1",
+            "author A",
+            "author-mail <a@b>",
+            "author-time 1792413394",
+            "author-tz +0000",
+            "committer A",
+            "committer-mail <a@b>",
+            "committer-time 1792413394",
+            "committer-tz +0000",
+            "summary third",
+            "previous " + SECOND + " plain.txt",
+            "filename plain.txt",
+            THIRD + " 5 5 1",
+            "previous " + SECOND + " plain.txt",
+            "filename plain.txt",
+            SECOND + " 1 1 2",
+            "author A",
+            "author-mail <a@b>",
+            "author-time 1792413394",
+            "author-tz +0000",
+            "committer A",
+            "committer-mail <a@b>",
+            "committer-time 1792413394",
+            "committer-tz +0000",
+            "summary second",
+            "boundary",
+            "filename plain.txt",
+            SECOND + " 4 4 1",
+            "filename plain.txt");
+
+    @Test
+    public void parsesChangedLinesPerFile() throws IOException {
+        Map<String, SortedSet<Integer>> changes = GitClient.parseUnifiedDiff(reader(DIFF));
+
+        assertEquals(Arrays.asList("plain.txt", "sp ace/g h.txt", "\u00e7\"q.txt"), new ArrayList<>(changes.keySet()));
+        // Hunk içindeki "+++ weird" bir dosya başlığı değil, eklenmiş "++ weird" satırıdır
+        assertEquals(lineSet(2, 4), changes.get("plain.txt"));
+        assertEquals(lineSet(2), changes.get("sp ace/g h.txt"));
+        assertEquals(lineSet(2, 3), changes.get("\u00e7\"q.txt"));
+    }
+
+    @Test
+    public void skipsDeletedFiles() throws IOException {
+        Map<String, SortedSet<Integer>> changes = GitClient.parseUnifiedDiff(reader(DIFF));
+
+        assertFalse(changes.containsKey("gone.txt"));
+        assertFalse(changes.containsKey("/dev/null"));
+    }
+
+    @Test
+    public void stripsTheTrailingTabOfHeaderPaths() {
+        assertEquals("b/sp ace/g h.txt", GitClient.parseHeaderPath("b/sp ace/g h.txt\t"));
+        assertEquals("b/plain.txt", GitClient.parseHeaderPath("b/plain.txt"));
+    }
+
+    @Test
+    public void unquotesCQuotedPaths() {
+        assertEquals("b/plain.txt", GitClient.unquotePath("b/plain.txt"));
+        // core.quotepath=on: UTF-8 byte'ları sekizlik kaçış olarak gelir
+        assertEquals("b/\u00e7\u00f6.java", GitClient.unquotePath("\"b/\\303\\247\\303\\266.java\""));
+        assertEquals("b/a\"b\\c\td.java", GitClient.unquotePath("\"b/a\\\"b\\\\c\\td.java\""));
+    }
+
+    @Test
+    public void attributesBlamedLinesToCommitsOfTheRange() throws IOException {
+        Map<String, SortedSet<Integer>> lines = GitClient.parseIncrementalBlame(reader(BLAME));
+
+        assertEquals(1, lines.size());
+        // İkinci blok başlıksız gelir; satır sayısı ve commit yine de okunur
+        assertEquals(lineSet(3, 5), lines.get(THIRD));
+    }
+
+    @Test
+    public void skipsBoundaryAndUncommittedLines() throws IOException {
+        Map<String, SortedSet<Integer>> lines = GitClient.parseIncrementalBlame(reader(BLAME));
+
+        // Boundary işareti yalnızca ilk blokta; satır 4 de aralık dışı sayılmalı
+        assertFalse(lines.containsKey(SECOND));
+        assertFalse(lines.containsKey("0000000000000000000000000000000000000000"));
+    }
+
+    @Test
+    public void countsMultiLineBlocks() throws IOException {
+        String blame = lines(
+                THIRD + " 10 20 3",
+                "summary third",
+                "filename plain.txt");
+
+        assertEquals(lineSet(20, 21, 22), GitClient.parseIncrementalBlame(reader(blame)).get(THIRD));
+    }
+
+    private static BufferedReader reader(String text) {
+        return new BufferedReader(new StringReader(text));
+    }
+
+    private static SortedSet<Integer> lineSet(Integer... lines) {
+        return new TreeSet<>(Arrays.asList(lines));
+    }
+
+    private static String lines(String... lines) {
+        return String.join("\n", lines) + "\n";
+    }
+}
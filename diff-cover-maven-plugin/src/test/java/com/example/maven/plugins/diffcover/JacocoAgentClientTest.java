@@ -0,0 +1,99 @@
+package com.example.maven.plugins.diffcover;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.core.runtime.RemoteControlReader;
+import org.jacoco.core.runtime.RemoteControlWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JacocoAgentClientTest {
+
+    private ServerSocket server;
+    private Thread agent;
+    private final AtomicReference<Boolean> resetRequested = new AtomicReference<>();
+    private final AtomicReference<Throwable> agentFailure = new AtomicReference<>();
+
+    @Before
+    public void startAgent() throws IOException {
+        ExecutionDataStore probes = new ExecutionDataStore();
+        probes.put(new ExecutionData(0x1234L, "com/example/App", new boolean[] {true, false, true}));
+        probes.put(new ExecutionData(0x5678L, "com/example/Other", new boolean[] {false, false}));
+
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        // tcpserver modundaki agent gibi: dump komutuna veri ve ok ile cevap verir
+        agent = new Thread(() -> {
+            try (Socket socket = server.accept()) {
+                RemoteControlWriter writer = new RemoteControlWriter(socket.getOutputStream());
+                RemoteControlReader reader = new RemoteControlReader(socket.getInputStream());
+                reader.setRemoteCommandVisitor((dump, reset) -> {
+                    resetRequested.set(reset);
+                    writer.visitSessionInfo(new SessionInfo("test", 1, 2));
+                    probes.accept(writer);
+                    writer.sendCmdOk();
+                });
+                reader.read();
+            } catch (IOException | RuntimeException e) {
+                agentFailure.set(e);
+            }
+        }, "fake-jacoco-agent");
+        agent.start();
+    }
+
+    @After
+    public void stopAgent() throws Exception {
+        server.close();
+        agent.join(5000);
+    }
+
+    @Test
+    public void dumpReturnsTheAgentsExecutionData() throws Exception {
+        JacocoAgentClient client = JacocoAgentClient.forAddress("127.0.0.1:" + server.getLocalPort(), 5000);
+
+        ExecutionDataStore dumped = client.dump(false);
+
+        assertEquals(1, dumped.getContents().size());
+        ExecutionData app = dumped.get(0x1234L);
+        assertNotNull(app);
+        assertEquals("com/example/App", app.getName());
+        assertArrayEquals(new boolean[] {true, false, true}, app.getProbes());
+        // Hiç çalışmamış sınıflar agent protokolünde gönderilmez
+        assertNull(dumped.get(0x5678L));
+
+        agent.join(5000);
+        assertNull(agentFailure.get());
+        assertFalse(resetRequested.get());
+    }
+
+    @Test
+    public void dumpPassesTheResetFlag() throws Exception {
+        JacocoAgentClient client = JacocoAgentClient.forAddress("127.0.0.1:" + server.getLocalPort(), 5000);
+
+        client.dump(true);
+
+        agent.join(5000);
+        assertNull(agentFailure.get());
+        assertTrue(resetRequested.get());
+    }
+
+    @Test
+    public void addressDefaultsToTheAgentPort() throws Exception {
+        assertEquals("ci-host:6300", JacocoAgentClient.forAddress("ci-host", 1000).getAddress());
+        assertEquals("ci-host:6301", JacocoAgentClient.forAddress(" ci-host:6301 ", 1000).getAddress());
+    }
+}
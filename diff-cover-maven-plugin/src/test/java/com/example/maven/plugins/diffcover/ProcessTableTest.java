@@ -0,0 +1,124 @@
+package com.example.maven.plugins.diffcover;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ProcessTableTest {
+
+    // ps -A -o pid= -o ppid= -o rss= -o time= -o lstart= çıktısından kaydedildi:
+    // 200 Maven, 300 diff-cover, 301/302 onun çocukları, 400 302'nin çocuğu;
+    // 500 ilgisiz, 600 ise sahibi ölmüş ve init'e (1) bağlanmış bir torun
+    private static final String PS = lines(
+            "    1     0 12000 00:00:09 Mon Oct 19 08:00:00 2026",
+            "  200     1 400000 00:01:12 Mon Oct 19 10:00:00 2026",
+            "  300   200 90000 1-02:03:04 Mon Oct 19 10:00:05 2026",
+            "  301   300  8000 00:00:00 Mon Oct 19 10:00:06 2026",
+            "  302   300 30000 00:00:02 Mon Oct 19 10:00:06 2026",
+            "  400   302  5000 00:00:01 Mon Oct 19 10:00:07 2026",
+            "  500   200  7000 00:00:00 Mon Oct 19 10:00:08 2026",
+            "  600     1  6000 00:00:03 Mon Oct 19 10:00:09 2026");
+
+    @Test
+    public void parsesLinuxCpuTime() {
+        assertEquals(4000, ProcessTable.parseCpuTime("00:00:04"));
+        assertEquals(((2 * 60 + 3) * 60 + 4) * 1000L, ProcessTable.parseCpuTime("02:03:04"));
+        assertEquals(((26 * 60 + 3) * 60 + 4) * 1000L, ProcessTable.parseCpuTime("1-02:03:04"));
+        assertEquals(((10 * 24 * 60) * 60 + 1) * 1000L, ProcessTable.parseCpuTime("10-00:00:01"));
+    }
+
+    @Test
+    public void parsesMacCpuTime() {
+        assertEquals(1500, ProcessTable.parseCpuTime("0:01.50"));
+        assertEquals((12 * 60 + 34) * 1000L + 560, ProcessTable.parseCpuTime("12:34.56"));
+        // macOS dakikayı 59'da kesmez
+        assertEquals(125 * 60 * 1000L + 10, ProcessTable.parseCpuTime("125:00.01"));
+    }
+
+    @Test
+    public void parsesEntriesWithTheirStartTime() throws IOException {
+        ProcessTable table = ProcessTable.parse(reader(PS), 42);
+
+        ProcessTable.Entry entry = table.get(300);
+        assertEquals(300, entry.getPid());
+        assertEquals(90000, entry.getRssKb());
+        assertEquals(ProcessTable.parseCpuTime("1-02:03:04"), entry.getCpuMillis());
+        // lstart boşluk içerir; satırın geri kalanı tek alan olmalı
+        assertEquals("Mon Oct 19 10:00:05 2026", entry.getStarted());
+        assertEquals(42, table.getTakenNanos());
+    }
+
+    @Test
+    public void skipsHeaderAndMalformedLines() throws IOException {
+        ProcessTable table = ProcessTable.parse(reader(lines(
+                "  PID  PPID   RSS     TIME STARTED",
+                "  700",
+                "  701   700  1000 00:00:00 Mon Oct 19 10:00:00 2026")), 0);
+
+        assertNull(table.get(700));
+        assertEquals(701, table.get(701).getPid());
+    }
+
+    @Test
+    public void treeWalksAllDescendantsParentsFirst() throws IOException {
+        ProcessTable table = ProcessTable.parse(reader(PS), 0);
+
+        List<Long> tree = pids(table.tree(300));
+
+        assertEquals(Arrays.asList(300L, 301L, 302L, 400L), sorted(tree));
+        assertEquals(Long.valueOf(300), tree.get(0));
+        assertTrue(tree.indexOf(302L) < tree.indexOf(400L));
+    }
+
+    @Test
+    public void treeLeavesOutSiblingsAndReparentedProcesses() throws IOException {
+        ProcessTable table = ProcessTable.parse(reader(PS), 0);
+
+        List<Long> tree = pids(table.tree(300));
+
+        // Kardeş (500), ebeveyn (200) ve init'e bağlanmış yetim (600) KILL almamalı
+        assertFalse(tree.contains(500L));
+        assertFalse(tree.contains(200L));
+        assertFalse(tree.contains(600L));
+        assertEquals(Arrays.asList(400L), pids(table.tree(400)));
+    }
+
+    @Test
+    public void treeOfAGoneProcessIsEmpty() throws IOException {
+        ProcessTable table = ProcessTable.parse(reader(PS), 0);
+
+        assertTrue(table.tree(999).isEmpty());
+    }
+
+    private static List<Long> pids(List<ProcessTable.Entry> entries) {
+        List<Long> pids = new ArrayList<>();
+        for (ProcessTable.Entry entry : entries) {
+            pids.add(entry.getPid());
+        }
+        return pids;
+    }
+
+    private static List<Long> sorted(List<Long> pids) {
+        List<Long> sorted = new ArrayList<>(pids);
+        sorted.sort(null);
+        return sorted;
+    }
+
+    private static BufferedReader reader(String text) {
+        return new BufferedReader(new StringReader(text));
+    }
+
+    private static String lines(String... lines) {
+        return String.join("\n", lines) + "\n";
+    }
+}